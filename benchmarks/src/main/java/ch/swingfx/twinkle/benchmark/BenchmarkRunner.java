@@ -0,0 +1,51 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line options
+ * and always adds the {@link GCProfiler} so allocation regressions show up
+ * next to the timings (see gc.alloc.rate.norm in the output).<br />
+ * The window benchmarks need a display. On a headless Linux box run them with
+ * <code>xvfb-run java -jar target/benchmarks.jar</code>
+ * @author Heinrich Spreiter
+ *
+ */
+public class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+		//
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		final OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLineOptions);
+		if(commandLineOptions.getIncludes().isEmpty()) {
+			builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		}
+		final Options options = builder.addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Callable;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs benchmark code on the event dispatch thread. Window construction
+ * must happen on the EDT just like in {@code NotificationBuilder}, so the
+ * measured time includes one EDT hand-off.
+ * @author Heinrich Spreiter
+ *
+ */
+final class Edt {
+
+	private Edt() {
+		//
+	}
+
+	/**
+	 * Call <code>callable</code> on the EDT and wait for the result
+	 * @param callable code to run
+	 * @return the result of <code>callable</code>
+	 */
+	static <T> T call(final Callable<T> callable) {
+		final Object[] result = new Object[1];
+		try {
+			SwingUtilities.invokeAndWait(new Runnable() {
+				public void run() {
+					try {
+						result[0] = callable.call();
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			});
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (InvocationTargetException e) {
+			throw new RuntimeException(e.getCause());
+		}
+		@SuppressWarnings("unchecked")
+		final T t = (T) result[0];
+		return t;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.swingfx.text.TextUtil;
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.style.theme.DarkDefaultNotification;
+import ch.swingfx.twinkle.window.TextMeasureCache;
+
+/**
+ * Measures the text measurement that drives the layout of the default
+ * notification window. Uses the font metrics of an off-screen image so it
+ * runs on a headless box.
+ * @author Heinrich Spreiter
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+	/** same text width the default window uses for a 320 pixel wide style */
+	private static final int TEXT_WIDTH = 260;
+
+	@Param({"SHORT", "LONG"})
+	public SampleText text;
+
+	private Graphics2D fGraphics;
+	private FontMetrics fTitleMetrics;
+	private FontMetrics fMessageMetrics;
+	private TextMeasureCache fCache;
+	private Insets fNoInsets;
+
+	@Setup
+	public void setup() {
+		final INotificationStyle style = new DarkDefaultNotification();
+		fGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		fGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		fTitleMetrics = fGraphics.getFontMetrics(style.getTitleFont());
+		fMessageMetrics = fGraphics.getFontMetrics(style.getMessageFont());
+		fCache = new TextMeasureCache(TextMeasureCache.DEFAULT_CAPACITY);
+		fNoInsets = new Insets(0, 0, 0, 0);
+	}
+
+	@TearDown
+	public void tearDown() {
+		fGraphics.dispose();
+	}
+
+	@Benchmark
+	public int titleHeight() {
+		return TextUtil.calculatePreferredHeight(fTitleMetrics, TEXT_WIDTH, text.getTitle());
+	}
+
+	@Benchmark
+	public int messageHeight() {
+		return TextUtil.calculatePreferredHeight(fMessageMetrics, TEXT_WIDTH, text.getMessage());
+	}
+
+	@Benchmark
+	public int messageHeightCached() {
+		return fCache.getPreferredHeight(fMessageMetrics, TEXT_WIDTH, fNoInsets, text.getMessage());
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.style.theme.DarkDefaultNotification;
+import ch.swingfx.twinkle.style.theme.LightDefaultNotification;
+import ch.swingfx.twinkle.window.OffscreenNotificationRenderer;
+
+/**
+ * Measures the {@link OffscreenNotificationRenderer}: creating the content, laying it out
+ * and painting it with overlay and close button into a new image. Does not need a display,
+ * so it runs on headless machines with <code>-Djava.awt.headless=true</code>.
+ * @author Heinrich Spreiter
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OffscreenRenderBenchmark {
+
+	@Param({"SHORT", "LONG"})
+	public SampleText text;
+
+	@Param({"dark", "light"})
+	public String theme;
+
+	private INotificationStyle fStyle;
+
+	@Setup
+	public void setup() {
+		fStyle = "dark".equals(theme) ? new DarkDefaultNotification() : new LightDefaultNotification();
+	}
+
+	@Benchmark
+	public BufferedImage renderMouseOut() {
+		return OffscreenNotificationRenderer.render(null, text.getTitle(), text.getMessage(), 1, fStyle, false);
+	}
+
+	@Benchmark
+	public BufferedImage renderMouseOver() {
+		return OffscreenNotificationRenderer.render(null, text.getTitle(), text.getMessage(), 1, fStyle, true);
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.swingfx.color.ColorUtil;
+import ch.swingfx.twinkle.style.background.ColorBackground;
+import ch.swingfx.twinkle.style.background.GradientBackground;
+import ch.swingfx.twinkle.style.background.IBackground;
+import ch.swingfx.twinkle.style.closebutton.ICloseButton;
+import ch.swingfx.twinkle.style.closebutton.RectangleCloseButton;
+import ch.swingfx.twinkle.style.closebutton.RoundCloseButton;
+import ch.swingfx.twinkle.style.overlay.BorderOverlay;
+import ch.swingfx.twinkle.style.overlay.GradientOverlay;
+import ch.swingfx.twinkle.style.overlay.IOverlay;
+import ch.swingfx.twinkle.style.overlay.OverlayPaintMode;
+
+/**
+ * Measures the paint paths of the backgrounds, overlays and close buttons.
+ * Everything is painted into an off-screen {@link BufferedImage} the size
+ * of a default notification, so this runs on a headless box.
+ * @author Heinrich Spreiter
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PainterBenchmark {
+
+	private static final int WIDTH = 320;
+	private static final int HEIGHT = 80;
+
+	@Param({"0", "8"})
+	public int cornerRadius;
+
+	private BufferedImage fImage;
+	private Graphics2D fGraphics;
+
+	private IBackground fColorBackground;
+	private IBackground fGradientBackground;
+	private IOverlay fBorderOverlay;
+	private IOverlay fGradientOverlay;
+	private ICloseButton fRoundCloseButton;
+	private ICloseButton fRectangleCloseButton;
+
+	@Setup
+	public void setup() {
+		fImage = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		fGraphics = fImage.createGraphics();
+		// the painters work with the clip like they do in a window
+		fGraphics.setClip(0, 0, WIDTH, HEIGHT);
+
+		fColorBackground = new ColorBackground(new Color(0x10, 0x10, 0x10));
+		fColorBackground.setAlpha(0.85f);
+		fGradientBackground = new GradientBackground(Color.DARK_GRAY, Color.BLACK);
+		fGradientBackground.setAlpha(0.85f);
+		fBorderOverlay = new BorderOverlay(1, Color.WHITE, OverlayPaintMode.ALWAYS);
+		fGradientOverlay = new GradientOverlay(ColorUtil.withAlpha(Color.WHITE, 0f), ColorUtil.withAlpha(Color.WHITE, 0.1f), OverlayPaintMode.ALWAYS);
+		fRoundCloseButton = new RoundCloseButton(ColorUtil.withAlpha(Color.BLACK, 0.6f), Color.WHITE).withPosition(9, 9);
+		fRectangleCloseButton = new RectangleCloseButton(ColorUtil.withAlpha(Color.WHITE, 0.8f), Color.BLACK).withPosition(9, 9);
+	}
+
+	@TearDown
+	public void tearDown() {
+		fGraphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage colorBackground() {
+		fColorBackground.paintBackground(fGraphics, false, cornerRadius);
+		return fImage;
+	}
+
+	@Benchmark
+	public BufferedImage gradientBackground() {
+		fGradientBackground.paintBackground(fGraphics, false, cornerRadius);
+		return fImage;
+	}
+
+	@Benchmark
+	public BufferedImage borderOverlay() {
+		fBorderOverlay.paintOverlayMouseOver(fGraphics, cornerRadius);
+		return fImage;
+	}
+
+	@Benchmark
+	public BufferedImage gradientOverlay() {
+		fGradientOverlay.paintOverlayMouseOver(fGraphics, cornerRadius);
+		return fImage;
+	}
+
+	@Benchmark
+	public BufferedImage roundCloseButton() {
+		fRoundCloseButton.paintCloseButton(fGraphics);
+		return fImage;
+	}
+
+	@Benchmark
+	public BufferedImage rectangleCloseButton() {
+		fRectangleCloseButton.paintCloseButton(fGraphics);
+		return fImage;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+/**
+ * Sample texts used by the benchmarks.
+ * @author Heinrich Spreiter
+ *
+ */
+public enum SampleText {
+	/** fits on one line */
+	SHORT("Build finished", "Twinkle 1.0.0 was built successfully."),
+	/** wraps over several lines */
+	LONG("Price alert: EUR/CHF crossed 1.0850",
+			"EUR/CHF traded at 1.0852 at 14:32:05, crossing the alert level of 1.0850 set by the FX desk. "
+			+ "The previous close was 1.0821 and the intraday range is 1.0815 - 1.0857. Click to open the blotter.");
+
+	private final String fTitle;
+	private final String fMessage;
+
+	private SampleText(String title, String message) {
+		fTitle = title;
+		fMessage = message;
+	}
+
+	public String getTitle() {
+		return fTitle;
+	}
+
+	public String getMessage() {
+		return fMessage;
+	}
+}
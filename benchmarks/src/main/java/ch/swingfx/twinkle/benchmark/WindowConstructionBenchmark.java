@@ -0,0 +1,105 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JWindow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.style.theme.DarkDefaultNotification;
+import ch.swingfx.twinkle.style.theme.LightDefaultNotification;
+import ch.swingfx.twinkle.window.DefaultNotificationWindow;
+import ch.swingfx.twinkle.window.NotificationWindowTypes;
+
+/**
+ * Measures the construction of a {@link DefaultNotificationWindow} including
+ * its pack() call and the creation and destruction of the native peer.
+ * Needs a display (use Xvfb on headless machines).
+ * @author Heinrich Spreiter
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class WindowConstructionBenchmark {
+
+	@Param({"SHORT", "LONG"})
+	public SampleText text;
+
+	@Param({"dark", "light"})
+	public String theme;
+
+	private INotificationStyle fStyle;
+	private GraphicsConfiguration fGraphicsConfiguration;
+
+	@Setup
+	public void setup() {
+		fStyle = "dark".equals(theme) ? new DarkDefaultNotification() : new LightDefaultNotification();
+		fGraphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
+	@Benchmark
+	public JWindow createAndDispose() {
+		return Edt.call(new Callable<JWindow>() {
+			public JWindow call() {
+				final JWindow window = new DefaultNotificationWindow(null, text.getTitle(), text.getMessage(), fStyle, fGraphicsConfiguration);
+				window.dispose();
+				return window;
+			}
+		});
+	}
+
+	@Benchmark
+	public JWindow createAndDisposeWithCreator() {
+		return Edt.call(new Callable<JWindow>() {
+			public JWindow call() {
+				final JWindow window = fStyle.getNotificationWindowCreator().createNotificationWindow(null, text.getTitle(), text.getMessage(), fStyle, fGraphicsConfiguration);
+				window.dispose();
+				return window;
+			}
+		});
+	}
+
+	@Benchmark
+	public JWindow createAndDisposePooled() {
+		return Edt.call(new Callable<JWindow>() {
+			public JWindow call() {
+				final JWindow window = NotificationWindowTypes.POOLED.createNotificationWindow(null, text.getTitle(), text.getMessage(), fStyle, fGraphicsConfiguration);
+				window.dispose();
+				return window;
+			}
+		});
+	}
+}
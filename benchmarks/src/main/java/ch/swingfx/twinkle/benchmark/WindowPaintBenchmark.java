@@ -0,0 +1,120 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.benchmark;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+import javax.swing.JWindow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.style.background.BackgroundPainterPanel;
+import ch.swingfx.twinkle.style.theme.DarkDefaultNotification;
+import ch.swingfx.twinkle.style.theme.LightDefaultNotification;
+import ch.swingfx.twinkle.window.DefaultNotificationWindow;
+import ch.swingfx.twinkle.window.GlassPane;
+
+/**
+ * Measures a full paint of the {@link BackgroundPainterPanel} (background,
+ * icon, title and message) and of the {@link GlassPane} (overlays and close button)
+ * of a visible notification. The components paint into an off-screen
+ * {@link BufferedImage}. The window is shown so the components are laid out and
+ * displayable like in a real notification. Needs a display (use Xvfb on headless machines).<br />
+ * The paints run on the benchmark thread to keep the EDT hand-off out of the
+ * numbers. The window is not touched by anything else while it is measured.
+ * @author Heinrich Spreiter
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class WindowPaintBenchmark {
+
+	@Param({"SHORT", "LONG"})
+	public SampleText text;
+
+	@Param({"dark", "light"})
+	public String theme;
+
+	private JWindow fWindow;
+	private JComponent fBackgroundPanel;
+	private GlassPane fGlassPane;
+	private BufferedImage fImage;
+	private Graphics2D fGraphics;
+
+	@Setup
+	public void setup() {
+		final INotificationStyle style = "dark".equals(theme) ? new DarkDefaultNotification() : new LightDefaultNotification();
+		final GraphicsConfiguration graphicsConfiguration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+		Edt.call(new Callable<Void>() {
+			public Void call() {
+				fWindow = new DefaultNotificationWindow(null, text.getTitle(), text.getMessage(), style, graphicsConfiguration);
+				fGlassPane = new GlassPane(fWindow, style, style.getWindowCornerRadius());
+				fWindow.setLocation(0, 0);
+				fWindow.setVisible(true);
+				fBackgroundPanel = (JComponent) fWindow.getContentPane().getComponent(0);
+				return null;
+			}
+		});
+		fImage = new BufferedImage(fWindow.getWidth(), fWindow.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		fGraphics = fImage.createGraphics();
+		fGraphics.setClip(0, 0, fImage.getWidth(), fImage.getHeight());
+	}
+
+	@TearDown
+	public void tearDown() {
+		fGraphics.dispose();
+		Edt.call(new Callable<Void>() {
+			public Void call() {
+				fWindow.dispose();
+				return null;
+			}
+		});
+	}
+
+	@Benchmark
+	public BufferedImage backgroundPainterPanel() {
+		fBackgroundPanel.paint(fGraphics);
+		return fImage;
+	}
+
+	@Benchmark
+	public BufferedImage glassPane() {
+		fGlassPane.paint(fGraphics);
+		return fImage;
+	}
+}
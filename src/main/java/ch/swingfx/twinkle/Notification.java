@@ -0,0 +1,321 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle;
+
+import java.awt.GraphicsDevice;
+import java.util.UUID;
+
+import javax.swing.Icon;
+import javax.swing.JWindow;
+
+import ch.swingfx.twinkle.event.INotificationEventListener;
+import ch.swingfx.twinkle.manager.INotificationManager;
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Metrics;
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.window.IPosition;
+import ch.swingfx.twinkle.window.NotificationWindowTypes;
+
+/**
+ * Immutable description of a notification. Created by {@link NotificationBuilder}
+ * and handed to an {@link INotificationManager}. The manager can hold on to it
+ * as long as it likes because no window or native resource is created until
+ * {@link #createWindow()} is called.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class Notification {
+	/** source of the events we send. Usual the {@link NotificationBuilder} */
+	private final Object fSource;
+	private final UUID fId;
+	private final Icon fIcon;
+	private final String fTitle;
+	private final String fMessage;
+	private final int fDisplayTime;
+	private final INotificationEventListener fListener;
+	private final INotificationStyle fStyle;
+	private final IPosition fPosition;
+	private final boolean fFadeIn;
+	private final boolean fFadeOut;
+	private final INotificationManager fManager;
+	/** notifications with the same key replace each other. can be null */
+	private final String fCollapseKey;
+	/** number of notifications this one stands for */
+	private final int fCount;
+	/** screen the notification is shown on. null for the main screen */
+	private final GraphicsDevice fScreen;
+	private final NotificationPriority fPriority;
+	/** time the notification was created. See System.nanoTime(). 0 if no {@link IMetricsCollector} was registered */
+	private final long fCreatedAt;
+
+	Notification(Object source, UUID id, Icon icon, String title, String message, int displayTime,
+			INotificationEventListener listener, INotificationStyle style, IPosition position,
+			boolean fadeIn, boolean fadeOut, INotificationManager manager, String collapseKey, int count, GraphicsDevice screen,
+			NotificationPriority priority) {
+		// only read the clock if somebody measures
+		this(source, id, icon, title, message, displayTime, listener, style, position, fadeIn, fadeOut, manager, collapseKey, count, screen,
+				priority, Metrics.getCollector() != null ? System.nanoTime() : 0L);
+	}
+
+	/**
+	 * Copies keep the creation time of the original, the latency is measured from the first showNotification()
+	 */
+	private Notification(Object source, UUID id, Icon icon, String title, String message, int displayTime,
+			INotificationEventListener listener, INotificationStyle style, IPosition position,
+			boolean fadeIn, boolean fadeOut, INotificationManager manager, String collapseKey, int count, GraphicsDevice screen,
+			NotificationPriority priority, long createdAt) {
+		fSource = source;
+		fId = id;
+		fIcon = icon;
+		fTitle = title;
+		fMessage = message;
+		fDisplayTime = displayTime;
+		fListener = listener;
+		fStyle = style;
+		fPosition = position;
+		fFadeIn = fadeIn;
+		fFadeOut = fadeOut;
+		fManager = manager;
+		fCollapseKey = collapseKey;
+		fCount = count;
+		fScreen = screen;
+		fPriority = priority;
+		fCreatedAt = createdAt;
+	}
+
+	/**
+	 * Creates the window for this notification, wires the display timer, the mouse
+	 * handling and the fade animations and positions it on the screen. The window is not visible yet.<br />
+	 * Must be called on the EDT. Every call creates a new window.
+	 * @return a new window that shows this notification
+	 */
+	public JWindow createWindow() {
+		return new NotificationPresenter(this, false).createWindow();
+	}
+
+	/**
+	 * Like {@link #createWindow()}, but the window fades in right after it is shown and
+	 * the fade in is shorter. Used for notifications that must be visible as soon as possible.
+	 * If the style uses {@link NotificationWindowTypes}.DEFAULT the window comes from the shared pool of
+	 * {@link NotificationWindowTypes}.POOLED, so it can be a window with a warm native peer.<br />
+	 * Must be called on the EDT. Every call creates a new window.
+	 * @return a new window that shows this notification
+	 */
+	public JWindow createLowLatencyWindow() {
+		return new NotificationPresenter(this, true).createWindow();
+	}
+
+	/**
+	 * Shows the content of this notification in a window that was created for an earlier
+	 * notification with the same collapse key. The window keeps sending its events
+	 * to the listener of the earlier notification.<br />
+	 * Must be called on the EDT.
+	 * @param window window created by createWindow() of the earlier notification
+	 * @return true if the window shows the new content, false if the window can not be
+	 * updated or is already closing
+	 */
+	public boolean refreshWindow(JWindow window) {
+		final NotificationPresenter presenter = NotificationPresenter.getPresenter(window);
+		return presenter != null && presenter.refresh(this);
+	}
+
+	/**
+	 * Closes a window created by createWindow() before its display time is over.
+	 * The window fades out and the listener receives a closed event like after the display time.<br />
+	 * Must be called on the EDT.
+	 * @param window window created by createWindow()
+	 * @return true if the window is closing, false if it was already closing
+	 */
+	public static boolean closeWindow(JWindow window) {
+		final NotificationPresenter presenter = NotificationPresenter.getPresenter(window);
+		return presenter != null && presenter.close();
+	}
+
+	/**
+	 * Create a notification with the content of this notification that also counts
+	 * the notifications <code>older</code> stands for. Used to collapse notifications
+	 * with the same collapse key. The new notification has the higher priority and the earlier creation time of the two.
+	 * @param older notification this one replaces
+	 * @return a new notification
+	 */
+	public Notification mergeWith(Notification older) {
+		return new Notification(fSource, fId, fIcon, fTitle, fMessage, fDisplayTime, fListener, fStyle, fPosition,
+				fFadeIn, fFadeOut, fManager, fCollapseKey, fCount + older.fCount, fScreen,
+				older.fPriority.isHigherThan(fPriority) ? older.fPriority : fPriority, earliest(fCreatedAt, older.fCreatedAt));
+	}
+
+	/**
+	 * Create a copy of this notification that is shown on another screen
+	 * @param screen the screen - null for the main screen
+	 * @return a new notification
+	 */
+	public Notification onScreen(GraphicsDevice screen) {
+		return new Notification(fSource, fId, fIcon, fTitle, fMessage, fDisplayTime, fListener, fStyle, fPosition,
+				fFadeIn, fFadeOut, fManager, fCollapseKey, fCount, screen, fPriority, fCreatedAt);
+	}
+
+	/**
+	 * Get the source of the events this notification sends
+	 * @return the source of the events. Usual the {@link NotificationBuilder}
+	 */
+	public Object getSource() {
+		return fSource;
+	}
+
+	/**
+	 * Get the id of this notification
+	 * @return the id of this notification
+	 */
+	public UUID getId() {
+		return fId;
+	}
+
+	/**
+	 * Get the icon
+	 * @return the icon - can be null
+	 */
+	public Icon getIcon() {
+		return fIcon;
+	}
+
+	/**
+	 * Get the title
+	 * @return the title
+	 */
+	public String getTitle() {
+		return fTitle;
+	}
+
+	/**
+	 * Get the message
+	 * @return the message - can be null
+	 */
+	public String getMessage() {
+		return fMessage;
+	}
+
+	/**
+	 * Get the time in milliseconds the notification is displayed
+	 * @return the display time in milliseconds
+	 */
+	public int getDisplayTime() {
+		return fDisplayTime;
+	}
+
+	/**
+	 * Get the listener that receives the events of this notification
+	 * @return the listener
+	 */
+	public INotificationEventListener getListener() {
+		return fListener;
+	}
+
+	/**
+	 * Get the style
+	 * @return the style
+	 */
+	public INotificationStyle getStyle() {
+		return fStyle;
+	}
+
+	/**
+	 * Get the position
+	 * @return the position
+	 */
+	public IPosition getPosition() {
+		return fPosition;
+	}
+
+	/**
+	 * Check if the notification fades in
+	 * @return true if the notification fades in
+	 */
+	public boolean isFadeIn() {
+		return fFadeIn;
+	}
+
+	/**
+	 * Check if the notification fades out
+	 * @return true if the notification fades out
+	 */
+	public boolean isFadeOut() {
+		return fFadeOut;
+	}
+
+	/**
+	 * Get the {@link INotificationManager} that shows this notification
+	 * @return the {@link INotificationManager}
+	 */
+	public INotificationManager getManager() {
+		return fManager;
+	}
+
+	/**
+	 * Get the collapse key. A notification replaces a waiting or visible notification with the same key
+	 * @return the collapse key - can be null
+	 */
+	public String getCollapseKey() {
+		return fCollapseKey;
+	}
+
+	/**
+	 * Get the number of notifications this notification stands for. Greater than 1 if
+	 * notifications with the same collapse key were collapsed into this one.
+	 * @return the number of notifications this notification stands for
+	 */
+	public int getCount() {
+		return fCount;
+	}
+
+	/**
+	 * Get the screen the notification is shown on
+	 * @return the screen - null for the main screen
+	 */
+	public GraphicsDevice getScreen() {
+		return fScreen;
+	}
+
+	/**
+	 * Get the priority
+	 * @return the priority
+	 */
+	public NotificationPriority getPriority() {
+		return fPriority;
+	}
+
+	/**
+	 * Get the earlier of two creation times
+	 * @return the earlier time. 0 only if both are 0
+	 */
+	private static long earliest(long createdAt, long otherCreatedAt) {
+		if(createdAt == 0L) {
+			return otherCreatedAt;
+		}
+		if(otherCreatedAt == 0L) {
+			return createdAt;
+		}
+		// nanoTime() can overflow, compare the difference
+		return otherCreatedAt - createdAt < 0 ? otherCreatedAt : createdAt;
+	}
+
+	/**
+	 * Get the time the notification was created
+	 * @return the time in nanoseconds (see System.nanoTime()) or 0 if no metrics were collected at that time
+	 */
+	long getCreatedAt() {
+		return fCreatedAt;
+	}
+}
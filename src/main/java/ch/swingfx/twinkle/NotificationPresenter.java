@@ -0,0 +1,392 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle;
+
+import ch.swingfx.twinkle.animation.Animation;
+import ch.swingfx.twinkle.animation.IAnimationTarget;
+import ch.swingfx.twinkle.event.INotificationEventListener;
+import ch.swingfx.twinkle.event.NotificationEvent;
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Latency;
+import ch.swingfx.twinkle.metrics.Metrics;
+import ch.swingfx.twinkle.screen.ScreenEnvironment;
+import ch.swingfx.twinkle.screen.ScreenGeometry;
+import ch.swingfx.twinkle.screen.WindowTranslucency;
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.window.GlassPane;
+import ch.swingfx.twinkle.window.ICreateNotificationWindow;
+import ch.swingfx.twinkle.window.IUpdatableNotificationWindow;
+import ch.swingfx.twinkle.window.NotificationWindowTypes;
+import ch.swingfx.window.translucentandshaped.Translucency;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * Creates and wires the window of one {@link Notification}. A new presenter is
+ * used for every window because it holds the state of that window.
+ * @author Heinrich Spreiter
+ *
+ */
+final class NotificationPresenter {
+	/**Duration of the fade in animation in milliseconds */
+	private static final int ANIMATION_FADE_IN_DURATION = 800;
+	/**Duration of the fade out animation in milliseconds */
+	private static final int ANIMATION_FADE_OUT_DURATION = 200;
+	/**delay before we start the fade in animation 
+	 * because of flickering on some systems/jres. */
+	private static final int ANIMATION_FADE_IN_START_DELAY = 200;
+	/**Duration of the fade in animation of a low latency window in milliseconds */
+	private static final int ANIMATION_LOW_LATENCY_FADE_IN_DURATION = 200;
+
+	private final Notification fNotification;
+	private final INotificationStyle fStyle;
+	private final INotificationEventListener fNotificationListener;
+	/**Flag that tells us if the window is closed or not */
+	private boolean fWindowClosed;
+	private JWindow fWindow;
+	/** See createWindow() */
+	private ScreenEnvironment fScreenEnvironment;
+	/** the screen the window is on. See createWindow() */
+	private GraphicsDevice fScreen;
+	/** This timer closes the window automatically if the mouse is not over the window. */
+	private Timer fCloseWindowTimer;
+	/** the size of the window. See createWindow() */
+	private Dimension fWindowSize;
+	/** the fade in animation. See createWindow() */
+	private Animation fFadeInAnimation;
+	/** true while the window has the size 0,0 and waits for the fade in */
+	private boolean fWaitingForFadeIn;
+	/** true to fade in without delay and faster */
+	private final boolean fLowLatency;
+
+	NotificationPresenter(Notification notification, boolean lowLatency) {
+		fNotification = notification;
+		fLowLatency = lowLatency;
+		fStyle = notification.getStyle();
+		fNotificationListener = notification.getListener();
+		fWindowClosed = false;
+	}
+
+	/**
+	 * Create the window of the notification. Must be called on the EDT
+	 * @return the window. Not visible yet
+	 */
+	JWindow createWindow() {
+		final IMetricsCollector collector = Metrics.getCollector();
+		final long startedAt = collector != null ? System.nanoTime() : 0L;
+		// discovered the first time a notification is shown
+		final ScreenEnvironment screenEnvironment = ScreenEnvironment.get();
+		fScreenEnvironment = screenEnvironment;
+		final WindowTranslucency windowApi = screenEnvironment.getWindowTranslucency();
+		// use the main screen if no screen is requested or if it was unplugged
+		final GraphicsDevice screen = screenEnvironment.resolveScreen(fNotification.getScreen());
+		fScreen = screen;
+		// This timer closes the window automatically if the mouse
+		// is not over the window.
+		final Timer closeWindowTimer = new Timer(fNotification.getDisplayTime(), null);
+		fCloseWindowTimer = closeWindowTimer;
+
+		// This window displays the notification
+		final GraphicsConfiguration graphicsConfiguration = screenEnvironment.getScreenGeometry(screen).getGraphicsConfiguration();
+		final long constructionStartedAt = collector != null ? System.nanoTime() : 0L;
+		ICreateNotificationWindow windowCreator = fStyle.getNotificationWindowCreator();
+		if(fLowLatency && windowCreator == NotificationWindowTypes.DEFAULT) {
+			// same window, but it may already have a peer
+			windowCreator = NotificationWindowTypes.POOLED;
+		}
+		final JWindow window = windowCreator.createNotificationWindow(fNotification.getIcon(), fNotification.getTitle(), fNotification.getMessage(), fStyle, graphicsConfiguration);
+		if(collector != null) {
+			collector.recordLatency(Latency.WINDOW_CONSTRUCTION, System.nanoTime() - constructionStartedAt);
+		}
+		fWindow = window;
+		// for the fade in animation. All animations are driven by the shared clock.
+		// on some systems it takes some time to set the opacity to 0.
+		// Therefore wait 200 milliseconds before we start the animation
+		// and therefore restore the size of the window.
+		// Low latency windows take the risk and start with the next frame
+		final Animation fadeInAnimation = new Animation(fLowLatency ? ANIMATION_LOW_LATENCY_FADE_IN_DURATION : ANIMATION_FADE_IN_DURATION,
+				fLowLatency ? 0 : ANIMATION_FADE_IN_START_DELAY, new IAnimationTarget() {
+			
+			public void event(float fraction) {
+				windowApi.setWindowOpacity(window, fraction);
+			}
+			
+			public void end() {
+				windowApi.setWindowOpacity(window, 1f);
+			}
+			
+			public void begin() {
+				// restore the size
+				fWaitingForFadeIn = false;
+				window.setSize(fWindowSize);
+			}
+		});
+		fFadeInAnimation = fadeInAnimation;
+		window.getRootPane().putClientProperty(NotificationPresenter.class, this);
+		
+		// set the position of the window
+		positionWindow(window);
+		
+		// store the size of the window.
+		// this is important because if we want to fade in the window
+		// we can not move it off screen in jdk 7 so we have to make
+		// it's size 0,0 so it will be invisible to the user.
+		// then when we show the window we restore the size
+		// and fade the window in.
+		// If we would just fade it in, it would blink before it's transparent
+		fWindowSize = window.getBounds().getSize();
+		if(fNotification.isFadeIn() && windowApi.isTranslucencySupported(Translucency.TRANSLUCENT, screen)) {
+			window.setSize(0, 0);
+			fWaitingForFadeIn = true;
+		}
+		
+		closeWindowTimer.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				if(fWindowClosed) {
+					return;
+				}
+				closeWindowTimer.stop();
+				closeWindow(window);
+				fNotificationListener.closed(newEvent());
+			}
+		});
+		
+		// check if the system supports corners for the notification.
+		// we do not use sWindowApi.setWindowShape() because that creates
+		// ugly corners. See http://download.oracle.com/javase/tutorial/uiswing/misc/trans_shaped_windows.html
+		// Instead, if supported by the system, we use the per pixel translucency.
+		// The backgrounds / overlay will then check for the cornerRadius and
+		// decide if they should paint a Rectangle or a RoundedRectangle. If they
+		// paint a RoundedRectangle only the painted pixels will be visible and
+		// therefore the corners will be smooth and nice.
+		int cornerRadius = 0;
+		if(windowApi.isTranslucencySupported(Translucency.PERPIXEL_TRANSLUCENT, screen)
+							&& windowApi.isTranslucencyCapable(window.getGraphicsConfiguration())) {
+			cornerRadius = fStyle.getWindowCornerRadius();
+		}
+		// this glass pane intercepts the mouse events for us
+		final GlassPane glassPane = new GlassPane(window, fStyle, cornerRadius);
+		//window.setGlassPane(glassPane);
+		
+		glassPane.addMouseListener(new MouseAdapter() {
+			public void mouseClicked(MouseEvent event) {
+				if(fWindowClosed) {
+					return;
+				}
+				// the notification was clicked.
+				// check if we clicked on the close button or not
+				fadeInAnimation.stop();
+				final boolean mouseOverCloseButton = fStyle.getCloseButton().isMouseOverCloseButton(event.getPoint());
+				if(!mouseOverCloseButton) {
+					fNotificationListener.clicked(newEvent());
+				}
+				closeWindow(window);
+				if(mouseOverCloseButton) {
+					fNotificationListener.closed(newEvent());
+				}
+			}
+			
+			public void mouseEntered(MouseEvent event) {
+				if(fWindowClosed) {
+					return;
+				}
+				fadeInAnimation.stop();
+				closeWindowTimer.stop();
+				glassPane.getHoverState().setMouseOver(true);
+				fNotificationListener.mouseOver(newEvent());
+				glassPane.repaint();
+			}
+			
+			public void mouseExited(MouseEvent event) {
+				if(fWindowClosed) {
+					return;
+				}
+				closeWindowTimer.start();
+				glassPane.getHoverState().setMouseOver(false);
+				fNotificationListener.mouseOut(newEvent());
+				glassPane.repaint();
+			}
+		});
+		
+		glassPane.addMouseMotionListener(new MouseMotionAdapter() {
+			public void mouseMoved(MouseEvent event) {
+				if(fWindowClosed) {
+					return;
+				}
+				// the glass pane covers the whole window, so the point is in window coordinates
+				final boolean mouseOverCloseButton = fStyle.getCloseButton().isMouseOverCloseButton(event.getPoint());
+				if(mouseOverCloseButton) {
+					glassPane.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+				} else {
+					glassPane.setCursor(Cursor.getDefaultCursor());
+				}
+			}
+		});
+
+		window.setAlwaysOnTop(true);
+		
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowOpened(WindowEvent e) {
+				if(e.getID() == WindowEvent.WINDOW_OPENED) {
+					if(fStyle.getAlpha() < 1f && windowApi.isTranslucencySupported(Translucency.PERPIXEL_TRANSLUCENT, screen)
+							&& windowApi.isTranslucencyCapable(window.getGraphicsConfiguration())) {
+						// if we set it before the window is visible, mouseExited event wont work if there are 1 or more windows opened.
+						// therefore set opaque false when the window is opened
+						windowApi.setWindowOpaque(window, false);
+						
+					}
+					if(fNotification.isFadeIn() && windowApi.isTranslucencySupported(Translucency.TRANSLUCENT, screen)) {
+						// animate
+						windowApi.setWindowOpacity(window, 0f);
+						fadeInAnimation.start();
+					}
+					
+					fNotificationListener.opened(newEvent());
+					// we only need to start the timer if it's not over the notification.
+					// Otherwise it could be that first mouseEntered occurs and hence closeWindowTimer.stop()
+					// before closeWindowTimer.start(). This means that even though the mouse is over the
+					// window, the timer started and the window will close.
+					// So we just check if the mouse is over the window or not.
+					// the manager may have moved the window, so don't use the position we calculated
+					final Rectangle windowRect = new Rectangle(fWindowSize.width, fWindowSize.height);
+					windowRect.setLocation(window.getX(), window.getY());
+					if(!windowRect.contains(MouseInfo.getPointerInfo().getLocation())) {
+						// not over the window. save to start the timer
+						closeWindowTimer.start();
+					} else {
+						// the window opened under the mouse. Paint it like it got a mouseEntered event
+						glassPane.getHoverState().setMouseOver(true);
+					}
+				}
+			}
+		});
+		
+		if(collector != null) {
+			final long createdAt = fNotification.getCreatedAt();
+			if(createdAt != 0L) {
+				glassPane.setFirstPaintAction(new Runnable() {
+					public void run() {
+						final IMetricsCollector currentCollector = Metrics.getCollector();
+						if(currentCollector != null) {
+							currentCollector.recordLatency(Latency.SHOW_TO_FIRST_PAINT, System.nanoTime() - createdAt);
+						}
+					}
+				});
+			}
+			collector.recordLatency(Latency.SHOW_EDT, System.nanoTime() - startedAt);
+		}
+		return window;
+	}
+
+	/**
+	 * Show the content of <code>notification</code> in our window.
+	 * The events are still sent to the listener of our notification.
+	 * @param notification notification with the new content
+	 * @return true if the window shows the new content
+	 */
+	boolean refresh(Notification notification) {
+		if(fWindowClosed || !(fWindow instanceof IUpdatableNotificationWindow)) {
+			return false;
+		}
+		((IUpdatableNotificationWindow) fWindow).updateNotification(notification.getIcon(), notification.getTitle(), notification.getMessage(), notification.getCount());
+		// the window has its new size now
+		fWindowSize = fWindow.getSize();
+		positionWindow(fWindow);
+		if(fWaitingForFadeIn) {
+			fWindow.setSize(0, 0);
+		}
+		// give the user time to read the new content
+		if(fCloseWindowTimer.isRunning()) {
+			fCloseWindowTimer.restart();
+		}
+		fWindow.repaint();
+		return true;
+	}
+
+	/**
+	 * Close the window before the display time is over
+	 * @return true if the window is closing, false if it was already closing
+	 */
+	boolean close() {
+		if(fWindowClosed) {
+			return false;
+		}
+		fCloseWindowTimer.stop();
+		closeWindow(fWindow);
+		fNotificationListener.closed(newEvent());
+		return true;
+	}
+
+	/**
+	 * Move the window to its position on our screen
+	 * @param window the window
+	 */
+	private void positionWindow(JWindow window) {
+		// the positions are relative to the screen. Other screens don't start at 0,0
+		final ScreenGeometry geometry = fScreenEnvironment.getScreenGeometry(fScreen);
+		final Point windowPosition = fNotification.getPosition().getPosition(geometry.getSize(), geometry.getInsets(), window, fStyle);
+		window.setLocation(geometry.getX() + windowPosition.x, geometry.getY() + windowPosition.y);
+	}
+
+	/**
+	 * Get the presenter of a window
+	 * @param window the window
+	 * @return the presenter that created the window or null
+	 */
+	static NotificationPresenter getPresenter(JWindow window) {
+		return (NotificationPresenter) window.getRootPane().getClientProperty(NotificationPresenter.class);
+	}
+
+	/**
+	 * Closes the window
+	 * @param window the window to close
+	 */
+	private void closeWindow(final JWindow window) {
+		fWindowClosed = true;
+		// don't let the fade in fight the fade out. A fade in still in its start delay must not show the window
+		fFadeInAnimation.cancel();
+		final WindowTranslucency windowApi = fScreenEnvironment.getWindowTranslucency();
+		if(fNotification.isFadeOut() && windowApi.isTranslucencySupported(Translucency.TRANSLUCENT, fScreen)) {
+			new Animation(ANIMATION_FADE_OUT_DURATION, new IAnimationTarget() {
+				
+				public void event(float fraction) {
+					windowApi.setWindowOpacity(window, 1f - fraction);
+				}
+				
+				public void end() {
+					window.dispose();
+				}
+				
+				public void begin() {
+					
+				}
+			}).start();
+		} else {
+			window.dispose();
+		}
+	}
+
+	/**
+	 * Create a new event for the listener
+	 * @return a new {@link NotificationEvent}
+	 */
+	private NotificationEvent newEvent() {
+		return new NotificationEvent(fNotification.getSource(), fNotification.getId());
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle;
+
+/**
+ * Priority of a {@link Notification}. Managers that know about priorities show notifications
+ * with a higher priority first. See {@link ch.swingfx.twinkle.manager.PriorityNotificationManager}
+ * @author Heinrich Spreiter
+ *
+ */
+public enum NotificationPriority {
+	LOW,
+	NORMAL,
+	HIGH,
+	CRITICAL;
+
+	/**
+	 * Check if this priority is higher than another one
+	 * @param other the other priority
+	 * @return true if this priority is higher
+	 */
+	public boolean isHigherThan(NotificationPriority other) {
+		return ordinal() > other.ordinal();
+	}
+}
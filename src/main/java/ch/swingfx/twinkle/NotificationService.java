@@ -0,0 +1,82 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle;
+
+import java.util.UUID;
+
+import ch.swingfx.twinkle.manager.EdtInbox;
+import ch.swingfx.twinkle.manager.INotificationManager;
+
+/**
+ * Thread safe entry point for applications that show notifications from many threads.<br />
+ * Build the {@link Notification} on your thread with a {@link NotificationBuilder} of its own, the builder
+ * is not thread safe but the notification is immutable. Then submit it here. The notifications go into
+ * a lock free queue and are handed to their {@link INotificationManager} on the EDT in batches, with one
+ * EDT event per batch instead of one per notification. A burst of hundreds of notifications does not
+ * flood the event queue, so the application stays responsive.<br />
+ * The managers receive the notifications in the order they were submitted by a thread.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class NotificationService {
+	private final EdtInbox<Notification> fInbox;
+
+	public NotificationService() {
+		fInbox = new EdtInbox<Notification>() {
+			@Override
+			protected void deliver(Notification notification) {
+				notification.getManager().showNotification(notification);
+			}
+		};
+	}
+
+	/**
+	 * Get the service most applications use
+	 * @return the shared service
+	 */
+	public static NotificationService getSharedService() {
+		return SharedService.INSTANCE;
+	}
+
+	/**
+	 * Show a notification with its manager. Can be called from any thread
+	 * @param notification the notification - can not be null
+	 * @return the id of the notification
+	 */
+	public UUID submit(Notification notification) {
+		if(notification == null) {
+			throw new IllegalArgumentException("notification can not be null");
+		}
+		fInbox.post(notification);
+		return notification.getId();
+	}
+
+	/**
+	 * Get the number of notifications that wait for the EDT
+	 * @return the number of submitted notifications not handed to their manager yet
+	 */
+	public int getPendingCount() {
+		return fInbox.getPendingCount();
+	}
+
+	/**
+	 * Holder of the shared service. Created on first use
+	 */
+	private static final class SharedService {
+		private static final NotificationService INSTANCE = new NotificationService();
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long the phases of {@link Twinkle#prewarm(ch.swingfx.twinkle.style.INotificationStyle...)} took.
+ * Immutable.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class PrewarmReport {
+	/**
+	 * The phases of the warm up in the order they run
+	 */
+	public enum Phase {
+		/** loading and initializing the Twinkle, Swing and Java2D text classes */
+		CLASS_LOADING,
+		/** discovering the screens and their work areas */
+		SCREEN_ENVIRONMENT,
+		/** loading the fonts of the styles and measuring text with them */
+		FONTS,
+		/** drawing text and shapes with Java2D into an image */
+		TEXT_RENDERING,
+		/** creating a window with its native peer and painting the content of every style on the EDT */
+		EDT
+	}
+
+	private final Map<Phase, Long> fDurations;
+
+	PrewarmReport(Map<Phase, Long> durations) {
+		fDurations = new EnumMap<Phase, Long>(durations);
+	}
+
+	/**
+	 * Get how long a phase took
+	 * @param phase the phase
+	 * @param unit the unit of the result
+	 * @return the duration. 0 if the phase was skipped, e.g. the screen phases on a headless system
+	 */
+	public long getDuration(Phase phase, TimeUnit unit) {
+		final Long nanos = fDurations.get(phase);
+		return nanos == null ? 0 : unit.convert(nanos.longValue(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Check if a phase ran
+	 * @param phase the phase
+	 * @return false if the phase was skipped
+	 */
+	public boolean hasRun(Phase phase) {
+		return fDurations.containsKey(phase);
+	}
+
+	/**
+	 * Get how long all phases took together
+	 * @param unit the unit of the result
+	 * @return the duration
+	 */
+	public long getTotalDuration(TimeUnit unit) {
+		long nanos = 0;
+		for(Long duration : fDurations.values()) {
+			nanos += duration.longValue();
+		}
+		return unit.convert(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("PrewarmReport[");
+		for(Phase phase : Phase.values()) {
+			builder.append(phase).append('=');
+			if(hasRun(phase)) {
+				builder.append(getDuration(phase, TimeUnit.MILLISECONDS)).append("ms");
+			} else {
+				builder.append("skipped");
+			}
+			builder.append(", ");
+		}
+		return builder.append("total=").append(getTotalDuration(TimeUnit.MILLISECONDS)).append("ms]").toString();
+	}
+}
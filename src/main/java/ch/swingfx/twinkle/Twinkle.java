@@ -0,0 +1,194 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.swing.JWindow;
+import javax.swing.SwingUtilities;
+
+import ch.swingfx.twinkle.PrewarmReport.Phase;
+import ch.swingfx.twinkle.animation.AnimationClock;
+import ch.swingfx.twinkle.screen.ScreenEnvironment;
+import ch.swingfx.twinkle.screen.WindowTranslucency;
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.window.DefaultNotificationContent;
+import ch.swingfx.twinkle.window.DefaultNotificationWindow;
+import ch.swingfx.twinkle.window.GlassPane;
+import ch.swingfx.twinkle.window.OffscreenNotificationRenderer;
+import ch.swingfx.twinkle.window.WrappedTextComponent;
+
+/**
+ * Entry point for application wide Twinkle tasks.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class Twinkle {
+	/** text we measure and draw to warm up the fonts */
+	private static final String SAMPLE_TEXT = "Twinkle notification 0123456789";
+	/** classes loaded in the class loading phase. Twinkle classes and the Swing and Java2D classes they use */
+	private static final String[] sClasses = {
+		"javax.swing.JWindow",
+		"javax.swing.JRootPane",
+		"javax.swing.JLayeredPane",
+		"javax.swing.RepaintManager",
+		"javax.swing.Timer",
+		"java.awt.font.TextLayout",
+		"java.awt.font.LineBreakMeasurer",
+		"java.awt.font.FontRenderContext",
+		"java.awt.geom.RoundRectangle2D$Float",
+		"java.awt.image.BufferedImage"
+	};
+
+	private Twinkle() {
+		//
+	}
+
+	/**
+	 * Do the work of the first notification ahead of time, so the first notification
+	 * appears as fast as the following ones. Runs on a background thread; only the last phase
+	 * runs on the EDT, in one event.<br />
+	 * The phases are described in {@link PrewarmReport.Phase}. On a headless system
+	 * the screen and EDT phases are skipped.<br />
+	 * If a window creator pools its windows, the windows created by the EDT phase stay in the pool
+	 * with their native peers.
+	 * @param styles the styles the application will use
+	 * @return the report. Fails with the exception of the phase that failed
+	 */
+	public static Future<PrewarmReport> prewarm(final INotificationStyle... styles) {
+		final FutureTask<PrewarmReport> task = new FutureTask<PrewarmReport>(new Callable<PrewarmReport>() {
+			public PrewarmReport call() throws Exception {
+				return runPrewarm(styles);
+			}
+		});
+		final Thread thread = new Thread(task, "twinkle-prewarm");
+		thread.setDaemon(true);
+		// don't slow down the application while it starts
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+		return task;
+	}
+
+	private static PrewarmReport runPrewarm(final INotificationStyle[] styles) throws InterruptedException, InvocationTargetException {
+		final Map<Phase, Long> durations = new EnumMap<Phase, Long>(Phase.class);
+		final boolean headless = GraphicsEnvironment.isHeadless();
+
+		long start = System.nanoTime();
+		loadClasses();
+		durations.put(Phase.CLASS_LOADING, Long.valueOf(System.nanoTime() - start));
+
+		if(!headless) {
+			start = System.nanoTime();
+			// reads the work areas of the screens, the X11 query is the slow part
+			ScreenEnvironment.get();
+			durations.put(Phase.SCREEN_ENVIRONMENT, Long.valueOf(System.nanoTime() - start));
+		}
+
+		start = System.nanoTime();
+		final FontRenderContext fontRenderContext = new FontRenderContext(null, true, true);
+		for(INotificationStyle style : styles) {
+			measure(style.getTitleFont(), fontRenderContext);
+			measure(style.getMessageFont(), fontRenderContext);
+		}
+		durations.put(Phase.FONTS, Long.valueOf(System.nanoTime() - start));
+
+		start = System.nanoTime();
+		final BufferedImage image = new BufferedImage(256, 32, BufferedImage.TYPE_INT_ARGB_PRE);
+		final Graphics2D g = image.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.fill(new RoundRectangle2D.Float(0, 0, 256, 32, 10, 10));
+			for(INotificationStyle style : styles) {
+				g.setFont(style.getTitleFont());
+				g.drawString(SAMPLE_TEXT, 0, 16);
+				g.setFont(style.getMessageFont());
+				g.drawString(SAMPLE_TEXT, 0, 30);
+			}
+		} finally {
+			g.dispose();
+		}
+		durations.put(Phase.TEXT_RENDERING, Long.valueOf(System.nanoTime() - start));
+
+		if(!headless) {
+			final long[] edtDuration = new long[1];
+			SwingUtilities.invokeAndWait(new Runnable() {
+				public void run() {
+					final long edtStart = System.nanoTime();
+					prewarmOnEdt(styles);
+					edtDuration[0] = System.nanoTime() - edtStart;
+				}
+			});
+			// only the time on the EDT, not the time we waited for it
+			durations.put(Phase.EDT, Long.valueOf(edtDuration[0]));
+		}
+		return new PrewarmReport(durations);
+	}
+
+	private static void loadClasses() {
+		final ClassLoader classLoader = Twinkle.class.getClassLoader();
+		final Class<?>[] twinkleClasses = {
+			Notification.class, NotificationBuilder.class, NotificationPresenter.class, AnimationClock.class,
+			WindowTranslucency.class, DefaultNotificationWindow.class, DefaultNotificationContent.class,
+			GlassPane.class, WrappedTextComponent.class, OffscreenNotificationRenderer.class
+		};
+		try {
+			for(Class<?> twinkleClass : twinkleClasses) {
+				Class.forName(twinkleClass.getName(), true, classLoader);
+			}
+			for(String className : sClasses) {
+				Class.forName(className, true, classLoader);
+			}
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void measure(Font font, FontRenderContext fontRenderContext) {
+		// loads the font file and the glyphs of the sample text
+		new TextLayout(SAMPLE_TEXT, font, fontRenderContext).getBounds();
+	}
+
+	/**
+	 * Create and pack a window for every style and paint its content. Called on the EDT
+	 * @param styles the styles
+	 */
+	private static void prewarmOnEdt(INotificationStyle[] styles) {
+		final ScreenEnvironment screenEnvironment = ScreenEnvironment.get();
+		final GraphicsConfiguration graphicsConfiguration = screenEnvironment.getMainScreenGeometry().getGraphicsConfiguration();
+		for(INotificationStyle style : styles) {
+			// pack() creates the native peer and initializes the rendering pipeline of the screen
+			final JWindow window = style.getNotificationWindowCreator().createNotificationWindow(null, SAMPLE_TEXT, SAMPLE_TEXT, style, graphicsConfiguration);
+			// returns the window to its pool if the window creator has one
+			window.dispose();
+			OffscreenNotificationRenderer.render(null, SAMPLE_TEXT, SAMPLE_TEXT, 1, style, true);
+		}
+	}
+}
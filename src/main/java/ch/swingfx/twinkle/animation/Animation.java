@@ -0,0 +1,136 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.animation;
+
+/**
+ * An animation with a duration and an optional start delay. Its frames are driven by the shared {@link AnimationClock}.<br />
+ * Must be used on the EDT.
+ * @author Heinrich Spreiter
+ *
+ */
+public class Animation {
+	private final long fDurationNanos;
+	private final long fStartDelayNanos;
+	private final IAnimationTarget fTarget;
+	/** time the animation was started. See System.nanoTime() */
+	private long fStartTime;
+	private boolean fRunning;
+	private boolean fBegun;
+
+	/**
+	 * Create an animation without start delay
+	 * @param durationInMillis duration in milliseconds
+	 * @param target receives the frames
+	 */
+	public Animation(int durationInMillis, IAnimationTarget target) {
+		this(durationInMillis, 0, target);
+	}
+
+	/**
+	 * Create an animation
+	 * @param durationInMillis duration in milliseconds
+	 * @param startDelayInMillis time in milliseconds between start() and begin()
+	 * @param target receives the frames
+	 */
+	public Animation(int durationInMillis, int startDelayInMillis, IAnimationTarget target) {
+		fDurationNanos = Math.max(1, durationInMillis) * 1000000L;
+		fStartDelayNanos = Math.max(0, startDelayInMillis) * 1000000L;
+		fTarget = target;
+	}
+
+	/**
+	 * Start the animation. Does nothing if it is already running
+	 */
+	public void start() {
+		if(fRunning) {
+			return;
+		}
+		fRunning = true;
+		fBegun = false;
+		fStartTime = System.nanoTime();
+		AnimationClock.getSharedClock().add(this);
+	}
+
+	/**
+	 * Stop the animation and jump to its end. Calls begin() if the animation didn't begin yet and end().
+	 * Does nothing if the animation is not running
+	 */
+	public void stop() {
+		if(!fRunning) {
+			return;
+		}
+		AnimationClock.getSharedClock().remove(this);
+		finish();
+	}
+
+	/**
+	 * Stop the animation without jumping to its end if it didn't begin yet. An animation that already began
+	 * is stopped like with stop().<br />
+	 * Does nothing if the animation is not running
+	 */
+	public void cancel() {
+		if(!fRunning) {
+			return;
+		}
+		AnimationClock.getSharedClock().remove(this);
+		if(fBegun) {
+			finish();
+		} else {
+			fRunning = false;
+		}
+	}
+
+	/**
+	 * Check if the animation is running
+	 * @return true if the animation is running
+	 */
+	public boolean isRunning() {
+		return fRunning;
+	}
+
+	/**
+	 * Called by the clock for every frame
+	 * @param now current time. See System.nanoTime()
+	 * @return false if the animation ended
+	 */
+	boolean tick(long now) {
+		final long elapsed = now - fStartTime - fStartDelayNanos;
+		if(elapsed < 0) {
+			// still in the start delay
+			return true;
+		}
+		if(!fBegun) {
+			fBegun = true;
+			fTarget.begin();
+		}
+		if(elapsed >= fDurationNanos) {
+			fTarget.event(1f);
+			finish();
+			return false;
+		}
+		fTarget.event((float) elapsed / fDurationNanos);
+		return true;
+	}
+
+	private void finish() {
+		fRunning = false;
+		if(!fBegun) {
+			fBegun = true;
+			fTarget.begin();
+		}
+		fTarget.end();
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.animation;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.Timer;
+
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Metrics;
+
+/**
+ * Drives all running {@link Animation}s from one timer. All animations get their frames in
+ * the same EDT event, so the windows of several notifications change their opacity
+ * together and there is only one timer event per frame.<br />
+ * The timer starts with the first animation and stops when no animation is running.
+ * Must be used on the EDT.
+ * @author Heinrich Spreiter
+ *
+ */
+public class AnimationClock {
+	/** time between two frames in milliseconds (25 frames per second) */
+	public static final int FRAME_INTERVAL = 40;
+	private static final long FRAME_INTERVAL_NANOS = FRAME_INTERVAL * 1000000L;
+
+	private static final AnimationClock sSharedClock = new AnimationClock();
+
+	private final Timer fTimer;
+	/** the running animations */
+	private final List<Animation> fAnimations;
+	/** animations of the current frame. Reused to avoid garbage */
+	private final List<Animation> fFrame;
+	/** time of the last frame. See System.nanoTime(). 0 if the timer was stopped */
+	private long fLastTick;
+
+	private AnimationClock() {
+		fAnimations = new ArrayList<Animation>();
+		fFrame = new ArrayList<Animation>();
+		fTimer = new Timer(FRAME_INTERVAL, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				tick();
+			}
+		});
+		fTimer.setCoalesce(true);
+	}
+
+	/**
+	 * Get the clock that drives all animations
+	 * @return the shared clock
+	 */
+	public static AnimationClock getSharedClock() {
+		return sSharedClock;
+	}
+
+	/**
+	 * Get the number of running animations
+	 * @return the number of running animations
+	 */
+	public int getAnimationCount() {
+		return fAnimations.size();
+	}
+
+	void add(Animation animation) {
+		fAnimations.add(animation);
+		if(!fTimer.isRunning()) {
+			fLastTick = 0L;
+			fTimer.start();
+		}
+	}
+
+	void remove(Animation animation) {
+		fAnimations.remove(animation);
+		if(fAnimations.isEmpty()) {
+			fTimer.stop();
+		}
+	}
+
+	private void tick() {
+		final long now = System.nanoTime();
+		final IMetricsCollector collector = Metrics.getCollector();
+		if(collector != null && fLastTick != 0L) {
+			// the timer coalesces the frames the EDT was too busy for
+			final long frames = (now - fLastTick + FRAME_INTERVAL_NANOS / 2) / FRAME_INTERVAL_NANOS;
+			if(frames > 1) {
+				collector.recordDroppedFrames((int) (frames - 1));
+			}
+		}
+		fLastTick = now;
+		// the targets may start or stop animations
+		fFrame.addAll(fAnimations);
+		for(int i = 0; i < fFrame.size(); i++) {
+			final Animation animation = fFrame.get(i);
+			if(animation.isRunning() && !animation.tick(now)) {
+				fAnimations.remove(animation);
+			}
+		}
+		fFrame.clear();
+		if(fAnimations.isEmpty()) {
+			fTimer.stop();
+		}
+	}
+}
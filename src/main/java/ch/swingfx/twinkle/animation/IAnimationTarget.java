@@ -0,0 +1,39 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.animation;
+
+/**
+ * Receives the frames of an {@link Animation}. All methods are called on the EDT.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface IAnimationTarget {
+	/**
+	 * Called before the first frame, after the start delay
+	 */
+	public void begin();
+
+	/**
+	 * Called for every frame
+	 * @param fraction how much of the animation is done. Between 0.0f and 1.0f
+	 */
+	public void event(float fraction);
+
+	/**
+	 * Called after the last frame or if the animation is stopped
+	 */
+	public void end();
+}
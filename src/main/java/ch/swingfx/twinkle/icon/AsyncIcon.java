@@ -0,0 +1,136 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.icon;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.Icon;
+import javax.swing.SwingUtilities;
+
+/**
+ * Icon whose image is decoded by the {@link IconService}. The size of the icon is known
+ * from the start, so a window can be laid out before the image is decoded. Until then
+ * the placeholder is painted and every component that painted the icon is repainted
+ * when the image is ready.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class AsyncIcon implements Icon {
+	private final int fWidth;
+	private final int fHeight;
+	private final Icon fPlaceholder;
+	private volatile BufferedImage fImage;
+	/** components that painted the placeholder. guarded by this */
+	private List<WeakReference<Component>> fWaitingComponents;
+
+	AsyncIcon(int width, int height, Icon placeholder) {
+		fWidth = width;
+		fHeight = height;
+		fPlaceholder = placeholder;
+		fWaitingComponents = new ArrayList<WeakReference<Component>>(2);
+	}
+
+	/**
+	 * Check if the image is decoded
+	 * @return true if the image is painted, false if the placeholder is painted
+	 */
+	public boolean isLoaded() {
+		return fImage != null;
+	}
+
+	public int getIconWidth() {
+		return fWidth;
+	}
+
+	public int getIconHeight() {
+		return fHeight;
+	}
+
+	public void paintIcon(Component c, Graphics g, int x, int y) {
+		final BufferedImage image = fImage;
+		if(image != null) {
+			g.drawImage(image, x, y, null);
+			return;
+		}
+		synchronized (this) {
+			if(fWaitingComponents != null && c != null) {
+				addWaitingComponent(c);
+			}
+		}
+		if(fPlaceholder != null) {
+			fPlaceholder.paintIcon(c, g, x + (fWidth - fPlaceholder.getIconWidth()) / 2, y + (fHeight - fPlaceholder.getIconHeight()) / 2);
+		}
+	}
+
+	/**
+	 * Remember a component that painted the placeholder. Every component only once,
+	 * it paints us again and again if the image never arrives. Call with the lock held
+	 * @param component the component
+	 */
+	private void addWaitingComponent(Component component) {
+		final Iterator<WeakReference<Component>> iterator = fWaitingComponents.iterator();
+		while(iterator.hasNext()) {
+			final Component waiting = iterator.next().get();
+			if(waiting == component) {
+				return;
+			}
+			if(waiting == null) {
+				iterator.remove();
+			}
+		}
+		fWaitingComponents.add(new WeakReference<Component>(component));
+	}
+
+	/**
+	 * Called by the {@link IconService} when the image is decoded
+	 * @param image the decoded image with the size of this icon
+	 */
+	void setImage(BufferedImage image) {
+		fImage = image;
+		final List<WeakReference<Component>> waitingComponents;
+		synchronized (this) {
+			waitingComponents = fWaitingComponents;
+			fWaitingComponents = null;
+		}
+		if(waitingComponents == null || waitingComponents.isEmpty()) {
+			return;
+		}
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				for(WeakReference<Component> reference : waitingComponents) {
+					final Component component = reference.get();
+					if(component != null) {
+						component.repaint();
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Get the decoded image
+	 * @return the image or null if it is not decoded yet
+	 */
+	BufferedImage getImage() {
+		return fImage;
+	}
+}
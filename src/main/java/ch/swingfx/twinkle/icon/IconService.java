@@ -0,0 +1,355 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.icon;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.Icon;
+
+/**
+ * Loads icons from files without blocking the caller.<br />
+ * The images are decoded on a background thread, scaled to the requested size and cached
+ * in a least recently used cache keyed by path and size. The cache is bounded by the memory
+ * the decoded images use. All requests for the same path and size share one {@link AsyncIcon},
+ * so a file is read once no matter how many notifications show it.<br />
+ * Only the first frame of an animated image is shown.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class IconService {
+	/** default maximum memory of the cached images in bytes */
+	public static final long DEFAULT_MAX_CACHE_BYTES = 4L * 1024 * 1024;
+	/** size for {@link #getIcon(String, int, int)} that keeps the size of the image */
+	public static final int NATURAL_SIZE = -1;
+
+	private static final IconService sSharedService = new IconService(DEFAULT_MAX_CACHE_BYTES);
+
+	private final ExecutorService fExecutor;
+	/** guarded by this */
+	private final LinkedHashMap<Key, AsyncIcon> fIcons;
+	/** the sizes of the images read from their headers. guarded by this */
+	private final Map<String, Dimension> fNaturalSizes;
+	/** guarded by this */
+	private long fMaxCacheBytes;
+	/** memory of the decoded images in the cache. guarded by this */
+	private long fCacheBytes;
+	/** guarded by this */
+	private Icon fPlaceholder;
+
+	/**
+	 * Create a new service with its own loader thread
+	 * @param maxCacheBytes maximum memory of the cached images in bytes
+	 */
+	public IconService(long maxCacheBytes) {
+		fMaxCacheBytes = maxCacheBytes;
+		fIcons = new LinkedHashMap<Key, AsyncIcon>(16, 0.75f, true);
+		fNaturalSizes = new LinkedHashMap<String, Dimension>();
+		fExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				final Thread thread = new Thread(r, "twinkle-icon-loader");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.NORM_PRIORITY - 1);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Get the service used by {@link ch.swingfx.twinkle.NotificationBuilder#withIcon(String)}
+	 * @return the shared service
+	 */
+	public static IconService getSharedService() {
+		return sSharedService;
+	}
+
+	/**
+	 * Set the icon that is painted while an image is decoded. It is centered in the space of the icon
+	 * @param placeholder the placeholder - can be null to leave the space empty
+	 */
+	public synchronized void setPlaceholder(Icon placeholder) {
+		fPlaceholder = placeholder;
+	}
+
+	/**
+	 * Set the maximum memory of the cached images. Evicts images if the cache is too big
+	 * @param maxCacheBytes maximum memory in bytes
+	 */
+	public synchronized void setMaxCacheBytes(long maxCacheBytes) {
+		fMaxCacheBytes = maxCacheBytes;
+		evict();
+	}
+
+	/**
+	 * Get the icon of an image file with the size of the image.
+	 * Only the header of the file is read on the calling thread, and only the first time
+	 * @param path path of the image file
+	 * @return the icon
+	 */
+	public Icon getIcon(String path) {
+		return getIcon(path, NATURAL_SIZE, NATURAL_SIZE);
+	}
+
+	/**
+	 * Get the icon of an image file scaled to a size
+	 * @param path path of the image file
+	 * @param width width of the icon or {@link #NATURAL_SIZE}
+	 * @param height height of the icon or {@link #NATURAL_SIZE}
+	 * @return the icon
+	 */
+	public Icon getIcon(String path, int width, int height) {
+		if(path == null) {
+			throw new IllegalArgumentException("path can not be null");
+		}
+		final Key key = new Key(path, width, height);
+		final AsyncIcon icon;
+		synchronized (this) {
+			final AsyncIcon cachedIcon = fIcons.get(key);
+			if(cachedIcon != null) {
+				return cachedIcon;
+			}
+		}
+		// read the header outside the lock
+		final Dimension size = getSize(path, width, height);
+		synchronized (this) {
+			final AsyncIcon cachedIcon = fIcons.get(key);
+			if(cachedIcon != null) {
+				return cachedIcon;
+			}
+			icon = new AsyncIcon(size.width, size.height, fPlaceholder);
+			fIcons.put(key, icon);
+		}
+		fExecutor.execute(new Runnable() {
+			public void run() {
+				load(key, icon);
+			}
+		});
+		return icon;
+	}
+
+	/**
+	 * Remove all cached icons. Icons that are in use keep their images
+	 */
+	public synchronized void clear() {
+		fIcons.clear();
+		fNaturalSizes.clear();
+		fCacheBytes = 0;
+	}
+
+	/**
+	 * Get the memory of the cached images
+	 * @return the memory in bytes
+	 */
+	public synchronized long getCacheBytes() {
+		return fCacheBytes;
+	}
+
+	/**
+	 * Get the size of the icon. Reads the size of the image from its header if needed
+	 */
+	private Dimension getSize(String path, int width, int height) {
+		if(width != NATURAL_SIZE && height != NATURAL_SIZE) {
+			return new Dimension(width, height);
+		}
+		Dimension naturalSize;
+		synchronized (this) {
+			naturalSize = fNaturalSizes.get(path);
+		}
+		if(naturalSize == null) {
+			naturalSize = readNaturalSize(path);
+			if(naturalSize == null) {
+				// don't remember it. The file may be there next time
+				naturalSize = new Dimension();
+			} else {
+				synchronized (this) {
+					fNaturalSizes.put(path, naturalSize);
+				}
+			}
+		}
+		if(width == NATURAL_SIZE && height == NATURAL_SIZE) {
+			return naturalSize;
+		}
+		// keep the aspect ratio
+		if(naturalSize.width == 0 || naturalSize.height == 0) {
+			return new Dimension(Math.max(width, 0), Math.max(height, 0));
+		}
+		if(width == NATURAL_SIZE) {
+			return new Dimension(naturalSize.width * height / naturalSize.height, height);
+		}
+		return new Dimension(width, naturalSize.height * width / naturalSize.width);
+	}
+
+	/**
+	 * Read the size of an image without decoding it
+	 * @param path path of the image file
+	 * @return the size or null if the file can not be read
+	 */
+	private static Dimension readNaturalSize(String path) {
+		try {
+			final ImageInputStream in = ImageIO.createImageInputStream(new File(path));
+			if(in == null) {
+				return null;
+			}
+			try {
+				final Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+				if(!readers.hasNext()) {
+					return null;
+				}
+				final ImageReader reader = readers.next();
+				try {
+					reader.setInput(in);
+					return new Dimension(reader.getWidth(0), reader.getHeight(0));
+				} finally {
+					reader.dispose();
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Decode and scale the image of an icon. Runs on the loader thread
+	 */
+	private void load(Key key, AsyncIcon icon) {
+		BufferedImage image = null;
+		if(icon.getIconWidth() > 0 && icon.getIconHeight() > 0) {
+			try {
+				image = ImageIO.read(new File(key.fPath));
+			} catch (IOException e) {
+				image = null;
+			}
+		}
+		if(image == null) {
+			// the icon keeps its placeholder. Forget it so the file is read again next time
+			synchronized (this) {
+				if(fIcons.get(key) == icon) {
+					fIcons.remove(key);
+				}
+				fNaturalSizes.remove(key.fPath);
+			}
+			return;
+		}
+		image = scale(image, icon.getIconWidth(), icon.getIconHeight());
+		icon.setImage(image);
+		synchronized (this) {
+			if(fIcons.get(key) == icon) {
+				fCacheBytes += getBytes(image);
+				evict();
+			}
+		}
+	}
+
+	/**
+	 * Evict the least recently used images until the cache is small enough. Call with the lock held
+	 */
+	private void evict() {
+		final Iterator<AsyncIcon> iterator = fIcons.values().iterator();
+		while(fCacheBytes > fMaxCacheBytes && iterator.hasNext()) {
+			final AsyncIcon icon = iterator.next();
+			final BufferedImage image = icon.getImage();
+			if(image == null) {
+				// still loading
+				continue;
+			}
+			fCacheBytes -= getBytes(image);
+			iterator.remove();
+		}
+	}
+
+	private static long getBytes(BufferedImage image) {
+		return 4L * image.getWidth() * image.getHeight();
+	}
+
+	/**
+	 * Scale an image with high quality. Shrinks in steps of one half
+	 * because a single bilinear step skips pixels and looks jagged
+	 * @param image the image
+	 * @param width target width
+	 * @param height target height
+	 * @return the scaled image
+	 */
+	private static BufferedImage scale(BufferedImage image, int width, int height) {
+		BufferedImage result = image;
+		int currentWidth = image.getWidth();
+		int currentHeight = image.getHeight();
+		do {
+			if(currentWidth > width) {
+				currentWidth = Math.max(currentWidth / 2, width);
+			} else {
+				currentWidth = width;
+			}
+			if(currentHeight > height) {
+				currentHeight = Math.max(currentHeight / 2, height);
+			} else {
+				currentHeight = height;
+			}
+			final BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+			final Graphics2D g = step.createGraphics();
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.drawImage(result, 0, 0, currentWidth, currentHeight, null);
+			} finally {
+				g.dispose();
+			}
+			result = step;
+		} while(currentWidth != width || currentHeight != height);
+		return result;
+	}
+
+	private static final class Key {
+		private final String fPath;
+		private final int fWidth;
+		private final int fHeight;
+
+		Key(String path, int width, int height) {
+			fPath = path;
+			fWidth = width;
+			fHeight = height;
+		}
+
+		@Override
+		public int hashCode() {
+			return (fPath.hashCode() * 31 + fWidth) * 31 + fHeight;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return fWidth == other.fWidth && fHeight == other.fHeight && fPath.equals(other.fPath);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.swing.Timer;
+
+import ch.swingfx.twinkle.Notification;
+
+/**
+ * Sits in front of another {@link INotificationManager} and coalesces bursts into one summary
+ * notification.<br />
+ * The first notification starts a time window. The first <code>threshold</code> notifications
+ * of the window are passed to the manager right away. All further notifications that arrive
+ * before the window ends are collected and passed to the manager as one notification created by the
+ * {@link INotificationSummarizer} when the window ends. The next notification starts a new window.<br />
+ * The collected notifications are not shown. Their listeners receive the events of the summary if the summarizer
+ * forwards them, like the default {@link CountingNotificationSummarizer} does.
+ * Example
+ * <code>
+ *     <pre>
+ *         INotificationManager manager = new AggregatingNotificationManager(NotificationManagers.SEQUENTIAL, 5, 10000);
+ *         new NotificationBuilder().withNotificationManager(manager)...
+ *     </pre>
+ * </code>
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class AggregatingNotificationManager implements INotificationManager {
+
+	private final INotificationManager fManager;
+	private final int fThreshold;
+	private final INotificationSummarizer fSummarizer;
+	/** our lock for synchronization */
+	private final Lock fLock;
+	/** ends the current window */
+	private final Timer fWindowTimer;
+	/** true while a window is open. guarded by lock */
+	private boolean fWindowOpen;
+	/** notifications passed through in the current window. guarded by lock */
+	private int fPassedThrough;
+	/** notifications collected in the current window. guarded by lock */
+	private List<Notification> fBurst;
+
+	/**
+	 * Create a manager that summarizes with a {@link CountingNotificationSummarizer}
+	 * @param manager manager that shows the notifications and the summaries
+	 * @param threshold number of notifications per time window that are shown without summarizing
+	 * @param timeWindowInMillis length of the time window in milliseconds
+	 */
+	public AggregatingNotificationManager(INotificationManager manager, int threshold, int timeWindowInMillis) {
+		this(manager, threshold, timeWindowInMillis, new CountingNotificationSummarizer());
+	}
+
+	/**
+	 * Create a manager
+	 * @param manager manager that shows the notifications and the summaries
+	 * @param threshold number of notifications per time window that are shown without summarizing. Must be &gt;= 0
+	 * @param timeWindowInMillis length of the time window in milliseconds. Must be &gt; 0
+	 * @param summarizer creates the summary notifications
+	 */
+	public AggregatingNotificationManager(INotificationManager manager, int threshold, int timeWindowInMillis, INotificationSummarizer summarizer) {
+		if(threshold < 0) {
+			throw new IllegalArgumentException("threshold must be >= 0");
+		}
+		if(timeWindowInMillis <= 0) {
+			throw new IllegalArgumentException("timeWindowInMillis must be > 0");
+		}
+		fManager = manager;
+		fThreshold = threshold;
+		fSummarizer = summarizer;
+		fLock = new ReentrantLock();
+		fBurst = new ArrayList<Notification>();
+		fWindowTimer = new Timer(timeWindowInMillis, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				endWindow();
+			}
+		});
+		fWindowTimer.setRepeats(false);
+	}
+
+	public void showNotification(Notification notification) {
+		try {
+			fLock.lock();
+			if(!fWindowOpen) {
+				fWindowOpen = true;
+				fPassedThrough = 0;
+				fWindowTimer.restart();
+			}
+			if(fPassedThrough >= fThreshold) {
+				fBurst.add(notification);
+				return;
+			}
+			fPassedThrough++;
+		} finally {
+			fLock.unlock();
+		}
+		fManager.showNotification(notification);
+	}
+
+	/**
+	 * Pass the summary of the collected notifications to the manager. Called on the EDT
+	 */
+	private void endWindow() {
+		final List<Notification> burst;
+		try {
+			fLock.lock();
+			fWindowOpen = false;
+			if(fBurst.isEmpty()) {
+				return;
+			}
+			burst = fBurst;
+			fBurst = new ArrayList<Notification>();
+		} finally {
+			fLock.unlock();
+		}
+		// a single notification doesn't need a summary
+		fManager.showNotification(burst.size() == 1 ? burst.get(0) : fSummarizer.summarize(burst));
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.util.List;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.NotificationBuilder;
+import ch.swingfx.twinkle.NotificationPriority;
+
+/**
+ * Summarizes a burst as "37 new alerts" and lists the titles of the first notifications
+ * in the message. The icon, style and position are taken from the first notification,
+ * the priority is the highest priority of the burst. The events of the summary are forwarded
+ * to the listeners of the summarized notifications with a {@link SummarizedNotificationListener}.
+ * @author Heinrich Spreiter
+ *
+ */
+public class CountingNotificationSummarizer implements INotificationSummarizer {
+	/** default number of titles listed in the message */
+	public static final int DEFAULT_LISTED_TITLES = 3;
+
+	private final String fTitleFormat;
+	private final int fListedTitles;
+
+	/**
+	 * Create a summarizer with the title "&lt;count&gt; new alerts" that lists {@link #DEFAULT_LISTED_TITLES} titles
+	 */
+	public CountingNotificationSummarizer() {
+		this("%d new alerts", DEFAULT_LISTED_TITLES);
+	}
+
+	/**
+	 * Create a summarizer
+	 * @param titleFormat format of the title. Gets the number of notifications as argument. See {@link String#format(String, Object...)}
+	 * @param listedTitles number of titles listed in the message
+	 */
+	public CountingNotificationSummarizer(String titleFormat, int listedTitles) {
+		fTitleFormat = titleFormat;
+		fListedTitles = listedTitles;
+	}
+
+	public Notification summarize(List<Notification> notifications) {
+		final Notification first = notifications.get(0);
+		int count = 0;
+		int displayTime = 0;
+		NotificationPriority priority = first.getPriority();
+		for(Notification notification : notifications) {
+			count += notification.getCount();
+			displayTime = Math.max(displayTime, notification.getDisplayTime());
+			if(notification.getPriority().isHigherThan(priority)) {
+				priority = notification.getPriority();
+			}
+		}
+		final StringBuilder message = new StringBuilder();
+		final int listed = Math.min(fListedTitles, notifications.size());
+		for(int i = 0; i < listed; i++) {
+			if(i > 0) {
+				message.append('\n');
+			}
+			message.append(notifications.get(i).getTitle());
+		}
+		if(notifications.size() > listed) {
+			message.append("\n... and ").append(notifications.size() - listed).append(" more");
+		}
+		return new NotificationBuilder()
+			.withStyle(first.getStyle())
+			.withIcon(first.getIcon())
+			.withPosition(first.getPosition())
+			.withFadeInAnimation(first.isFadeIn())
+			.withFadeOutAnimation(first.isFadeOut())
+			.withDisplayTime(displayTime)
+			.withNotificationManager(first.getManager())
+			.withScreen(first.getScreen())
+			.withPriority(priority)
+			.withListener(new SummarizedNotificationListener(notifications))
+			.withTitle(String.format(fTitleFormat, Integer.valueOf(count)))
+			.withMessage(message.toString())
+			.build();
+	}
+}
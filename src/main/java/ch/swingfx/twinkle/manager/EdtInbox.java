@@ -0,0 +1,111 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Hands elements from any thread over to the EDT without locks.<br />
+ * The producers add to a lock free queue. The first element after the queue ran empty schedules one
+ * EDT event that delivers all elements that arrived in the meantime, so a burst costs one
+ * invokeLater instead of one per element. Elements posted on the EDT are delivered right away
+ * if nothing is waiting, so they never overtake an element that was posted before.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ * @param <E> type of the elements
+ */
+public abstract class EdtInbox<E> {
+	/** maximum number of elements delivered in one EDT event. The rest gets a new event so the EDT can paint */
+	public static final int MAX_BATCH_SIZE = 256;
+
+	private final Queue<E> fElements;
+	/** true if drain() is scheduled or running */
+	private final AtomicBoolean fDrainScheduled;
+	private final Runnable fDrain;
+
+	public EdtInbox() {
+		fElements = new ConcurrentLinkedQueue<E>();
+		fDrainScheduled = new AtomicBoolean();
+		fDrain = new Runnable() {
+			public void run() {
+				drain();
+			}
+		};
+	}
+
+	/**
+	 * Deliver an element to the EDT. Can be called from any thread
+	 * @param element the element - can not be null
+	 */
+	public void post(E element) {
+		if(SwingUtilities.isEventDispatchThread() && !fDrainScheduled.get()) {
+			// nothing is waiting. drain() only runs on the EDT, so it can't start now either
+			deliver(element);
+			return;
+		}
+		fElements.offer(element);
+		if(fDrainScheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(fDrain);
+		}
+	}
+
+	/**
+	 * Get the number of elements that wait for the EDT
+	 * @return the number of waiting elements
+	 */
+	public int getPendingCount() {
+		return fElements.size();
+	}
+
+	private void drain() {
+		try {
+			int delivered = 0;
+			E element;
+			while(delivered < MAX_BATCH_SIZE && (element = fElements.poll()) != null) {
+				deliver(element);
+				delivered++;
+			}
+		} finally {
+			// also if deliver() threw. The flag would stay set and the inbox would never drain again
+			scheduleNextDrain();
+		}
+	}
+
+	/**
+	 * Clear the scheduled flag or schedule the next drain if elements are waiting
+	 */
+	private void scheduleNextDrain() {
+		if(fElements.isEmpty()) {
+			fDrainScheduled.set(false);
+			// an element may have arrived after the last poll but before the flag was cleared
+			if(fElements.isEmpty() || !fDrainScheduled.compareAndSet(false, true)) {
+				return;
+			}
+		}
+		SwingUtilities.invokeLater(fDrain);
+	}
+
+	/**
+	 * Called on the EDT for every element in the order they were posted
+	 * @param element the element
+	 */
+	protected abstract void deliver(E element);
+}
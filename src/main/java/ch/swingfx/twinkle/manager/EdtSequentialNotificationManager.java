@@ -0,0 +1,181 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+import javax.swing.JWindow;
+import javax.swing.Timer;
+
+import ch.swingfx.twinkle.Notification;
+
+/**
+ * Shows the notifications one after one, like {@link SequentialNotificationManager}, but every instance
+ * has its own queue and its state is confined to the EDT, so there is no lock on the way to the screen.<br />
+ * Producers on other threads hand their notifications over through an {@link EdtInbox}.
+ * The {@link NotificationQueue} is only used on the EDT, so its lock is never contended.
+ * Because the queue is filled on the EDT, {@link OverflowPolicy}.BLOCK never blocks a producer and
+ * drops the notification like DROP_NEWEST if the queue is full.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class EdtSequentialNotificationManager implements INotificationManager {
+	/** default delay before we show the notification in milliseconds */
+	public static final int DEFAULT_DELAY = 250;
+
+	private final EdtInbox<Notification> fInbox;
+	/** notifications waiting for their turn. Only used on the EDT */
+	private final NotificationQueue fQueue;
+	/** the visible notification if it has a collapse key */
+	private final VisibleNotifications fVisible;
+	/** shows fNextNotification after the delay. Reused for every window */
+	private final Timer fDelayTimer;
+	/** true if a window is open or about to open. EDT only */
+	private boolean fWindowOpen;
+	/** the notification the delay timer shows. EDT only */
+	private Notification fNextNotification;
+
+	/**
+	 * Create a manager with an unbounded queue
+	 */
+	public EdtSequentialNotificationManager() {
+		this(new NotificationQueue());
+	}
+
+	/**
+	 * Create a manager
+	 * @param queue queue for the notifications that wait for their turn
+	 */
+	public EdtSequentialNotificationManager(NotificationQueue queue) {
+		this(queue, DEFAULT_DELAY);
+	}
+
+	/**
+	 * Create a manager
+	 * @param queue queue for the notifications that wait for their turn
+	 * @param delayInMillis delay before a notification is shown
+	 */
+	public EdtSequentialNotificationManager(NotificationQueue queue, int delayInMillis) {
+		fQueue = queue;
+		fVisible = new VisibleNotifications();
+		fInbox = new EdtInbox<Notification>() {
+			@Override
+			protected void deliver(Notification notification) {
+				enqueue(notification);
+			}
+		};
+		fDelayTimer = new Timer(delayInMillis, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				final Notification notification = fNextNotification;
+				fNextNotification = null;
+				showWindow(notification);
+			}
+		});
+		fDelayTimer.setRepeats(false);
+	}
+
+	/**
+	 * Get the queue of the notifications that wait to be displayed.
+	 * Use it to bound the queue or to observe its depth
+	 * @return the queue
+	 */
+	public NotificationQueue getQueue() {
+		return fQueue;
+	}
+
+	/**
+	 * Get the number of notifications that were handed over but are not in the queue yet
+	 * @return the number of notifications on their way to the EDT
+	 */
+	public int getInboxCount() {
+		return fInbox.getPendingCount();
+	}
+
+	public void showNotification(Notification notification) {
+		fInbox.post(notification);
+	}
+
+	/**
+	 * Update the visible window with the same collapse key or add the notification to the queue. EDT only
+	 * @param notification notification to show
+	 */
+	private void enqueue(Notification notification) {
+		if(fVisible.isVisible(notification)
+				&& (fVisible.mergePending(notification) || fVisible.refresh(notification) != null)) {
+			return;
+		}
+		if(fQueue.offer(notification)) {
+			nextWindow();
+		}
+	}
+
+	/**
+	 * Shows the next notification of the queue if no window is open. EDT only
+	 */
+	private void nextWindow() {
+		if(fWindowOpen) {
+			return;
+		}
+		final Notification notification = fQueue.poll();
+		if(notification != null) {
+			fWindowOpen = true;
+			// it left the queue, so later notifications with the same key must find it here
+			fVisible.pending(notification);
+			fNextNotification = notification;
+			fDelayTimer.restart();
+		}
+	}
+
+	/**
+	 * Creates the window of the notification and shows it. EDT only
+	 * @param pending notification to show
+	 */
+	private void showWindow(Notification pending) {
+		final Notification notification = fVisible.takePending(pending);
+		final JWindow window;
+		try {
+			window = notification.createWindow();
+		} catch (RuntimeException e) {
+			// don't block the queue because of a broken notification
+			fVisible.closed(notification, null);
+			windowClosed();
+			throw e;
+		}
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				window.removeWindowListener(this);
+				fVisible.closed(notification, window);
+				EdtSequentialNotificationManager.this.windowClosed();
+			}
+		});
+		fVisible.shown(notification, window);
+		window.setVisible(true);
+		window.getGlassPane().setVisible(true);
+	}
+
+	/**
+	 * Called if the open window is closed. EDT only
+	 */
+	private void windowClosed() {
+		fWindowOpen = false;
+		nextWindow();
+	}
+}
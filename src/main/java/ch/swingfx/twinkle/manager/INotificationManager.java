@@ -15,17 +15,20 @@
 
 package ch.swingfx.twinkle.manager;
 
-import javax.swing.JWindow;
+import ch.swingfx.twinkle.Notification;
 
 /**
- * Interface to use if we want to create a new {@link INotificationManager}
+ * Interface to use if we want to create a new {@link INotificationManager}.<br />
+ * A manager receives a {@link Notification} and decides when to show it. It should not create
+ * the window before the notification is actually displayed. Call {@link Notification}.createWindow()
+ * on the EDT for that.
  * @author Heinrich Spreiter
  *
  */
 public interface INotificationManager {
 	/**
-	 * Show the notification
-	 * @param window window that represents the notification
+	 * Show the notification. Can be called from any thread.
+	 * @param notification the notification to show
 	 */
-	public void showNotification(JWindow window);
+	public void showNotification(Notification notification);
 }
@@ -0,0 +1,31 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+/**
+ * Implement this listener if you want to observe the depth of a {@link NotificationQueue}.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface INotificationQueueListener {
+	/**
+	 * Called after a notification was added, removed, dropped or rejected. Use
+	 * getDepth(), getDroppedCount() and getRejectedCount() of the queue to read the new values.<br />
+	 * Called on the thread that changed the queue. Keep it short.
+	 * @param queue the queue that changed
+	 */
+	public void queueChanged(NotificationQueue queue);
+}
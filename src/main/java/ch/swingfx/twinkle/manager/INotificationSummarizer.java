@@ -0,0 +1,37 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.util.List;
+
+import ch.swingfx.twinkle.Notification;
+
+/**
+ * Creates the summary notification an {@link AggregatingNotificationManager} shows instead
+ * of a burst of notifications. Implement it to write your own summaries.<br />
+ * The summarized notifications are never shown, so their listeners only get events if the summary
+ * forwards them. Use a {@link SummarizedNotificationListener} as listener of the summary.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface INotificationSummarizer {
+	/**
+	 * Create a notification that summarizes <code>notifications</code>
+	 * @param notifications the notifications of the burst in the order they arrived. Contains at least one notification
+	 * @return the summary notification
+	 */
+	public Notification summarize(List<Notification> notifications);
+}
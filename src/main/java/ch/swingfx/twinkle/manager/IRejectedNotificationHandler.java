@@ -0,0 +1,33 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import ch.swingfx.twinkle.Notification;
+
+/**
+ * Receives the notifications a {@link NotificationQueue} with {@link OverflowPolicy}.REJECT
+ * could not take.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface IRejectedNotificationHandler {
+	/**
+	 * Called if the queue is full. Called on the thread that tried to show the notification.
+	 * @param notification the notification that was not queued
+	 * @param queue the queue that is full
+	 */
+	public void rejected(Notification notification, NotificationQueue queue);
+}
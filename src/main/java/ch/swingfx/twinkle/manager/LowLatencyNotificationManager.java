@@ -0,0 +1,115 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.awt.GraphicsDevice;
+
+import javax.swing.JWindow;
+import javax.swing.SwingUtilities;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.screen.ScreenEnvironment;
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.window.ICreateNotificationWindow;
+import ch.swingfx.twinkle.window.NotificationWindowPool;
+import ch.swingfx.twinkle.window.NotificationWindowTypes;
+
+/**
+ * A {@link StackingNotificationManager} for notifications that must be visible as soon as possible.<br />
+ * There is no delay before a notification is shown: it is shown in the next EDT event after
+ * showNotification() if a slot is free. Its window fades in right away and faster
+ * (see {@link Notification#createLowLatencyWindow()}). The fade is skipped if the platform
+ * does not support translucency.<br />
+ * For every style the manager keeps a hidden window with its native peer warm in the
+ * {@link NotificationWindowPool} of the style, so the next notification with that style does not
+ * wait for a new peer. This works for styles with {@link NotificationWindowTypes}.DEFAULT,
+ * {@link NotificationWindowTypes}.POOLED or a {@link NotificationWindowPool}. Call
+ * {@link #prewarm(INotificationStyle)} to warm up a style before its first notification.
+ * @author Heinrich Spreiter
+ *
+ */
+public class LowLatencyNotificationManager extends StackingNotificationManager {
+
+	/**
+	 * Create a manager that shows {@link StackingNotificationManager#DEFAULT_MAX_VISIBLE} notifications at the same time
+	 */
+	public LowLatencyNotificationManager() {
+		super();
+	}
+
+	/**
+	 * Create a manager
+	 * @param maxVisible maximum number of notifications visible at the same time. Must be &gt; 0
+	 */
+	public LowLatencyNotificationManager(int maxVisible) {
+		super(maxVisible);
+	}
+
+	/**
+	 * Keep a window warm for a style on the main screen. Can be called from any thread,
+	 * the window is created on the EDT
+	 * @param style the style
+	 * @return false if the windows of the style are not pooled and can not be kept warm
+	 */
+	public boolean prewarm(final INotificationStyle style) {
+		final NotificationWindowPool pool = getPool(style);
+		if(pool == null) {
+			return false;
+		}
+		if(SwingUtilities.isEventDispatchThread()) {
+			keepWarm(pool, style, null);
+		} else {
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					keepWarm(pool, style, null);
+				}
+			});
+		}
+		return true;
+	}
+
+	@Override
+	protected JWindow createWindow(Notification notification) {
+		final NotificationWindowPool pool = getPool(notification.getStyle());
+		if(pool != null) {
+			// only creates a window if the style is not warm yet. Then the notification takes it right away
+			keepWarm(pool, notification.getStyle(), notification.getScreen());
+		}
+		return notification.createLowLatencyWindow();
+	}
+
+	private static void keepWarm(NotificationWindowPool pool, INotificationStyle style, GraphicsDevice requestedScreen) {
+		final ScreenEnvironment screenEnvironment = ScreenEnvironment.get();
+		pool.keepWarm(style, screenEnvironment.getScreenGeometry(screenEnvironment.resolveScreen(requestedScreen)).getGraphicsConfiguration());
+	}
+
+	/**
+	 * Get the pool the windows of a style come from
+	 * @param style the style
+	 * @return the pool or null if the windows are not pooled
+	 */
+	private static NotificationWindowPool getPool(INotificationStyle style) {
+		final ICreateNotificationWindow windowCreator = style.getNotificationWindowCreator();
+		if(windowCreator instanceof NotificationWindowPool) {
+			return (NotificationWindowPool) windowCreator;
+		}
+		if(windowCreator == NotificationWindowTypes.DEFAULT || windowCreator == NotificationWindowTypes.POOLED) {
+			// createLowLatencyWindow() takes the windows of DEFAULT from the shared pool
+			return NotificationWindowTypes.getSharedPool();
+		}
+		return null;
+	}
+}
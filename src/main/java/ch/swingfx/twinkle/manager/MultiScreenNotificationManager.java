@@ -0,0 +1,125 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.awt.GraphicsDevice;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.screen.ScreenEnvironment;
+
+/**
+ * Shows the notifications on several screens. Every screen has its own {@link INotificationManager}
+ * with its own queue, so the screens don't wait for each other.<br />
+ * A notification with a screen (see {@link ch.swingfx.twinkle.NotificationBuilder#withScreen(GraphicsDevice)})
+ * is shown on that screen. The other notifications are shown on the target screen of this manager
+ * or, if it has none, on the screen the mouse pointer is on.<br />
+ * The managers of the screens are created on first use by an {@link IScreenNotificationManagerFactory}.
+ * By default every screen gets a {@link StackingNotificationManager}.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class MultiScreenNotificationManager implements INotificationManager {
+	/** creates a {@link StackingNotificationManager} per screen */
+	private static final IScreenNotificationManagerFactory sStackingFactory = new IScreenNotificationManagerFactory() {
+		public INotificationManager createManager(GraphicsDevice screen) {
+			return new StackingNotificationManager();
+		}
+	};
+
+	/** null for the screen under the pointer */
+	private final GraphicsDevice fTargetScreen;
+	private final IScreenNotificationManagerFactory fFactory;
+	private final ConcurrentMap<GraphicsDevice, INotificationManager> fManagers;
+
+	/**
+	 * Create a manager that shows the notifications on the screen the mouse pointer is on
+	 */
+	public MultiScreenNotificationManager() {
+		this(null, sStackingFactory);
+	}
+
+	/**
+	 * Create a manager that shows the notifications on a screen
+	 * @param targetScreen the screen or null for the screen the mouse pointer is on
+	 */
+	public MultiScreenNotificationManager(GraphicsDevice targetScreen) {
+		this(targetScreen, sStackingFactory);
+	}
+
+	/**
+	 * Create a manager that shows the notifications on a screen
+	 * @param targetScreen the screen or null for the screen the mouse pointer is on
+	 * @param factory creates the manager of a screen
+	 */
+	public MultiScreenNotificationManager(GraphicsDevice targetScreen, IScreenNotificationManagerFactory factory) {
+		if(factory == null) {
+			throw new IllegalArgumentException("factory can not be null");
+		}
+		fTargetScreen = targetScreen;
+		fFactory = factory;
+		fManagers = new ConcurrentHashMap<GraphicsDevice, INotificationManager>();
+	}
+
+	public void showNotification(Notification notification) {
+		final ScreenEnvironment screenEnvironment = ScreenEnvironment.get();
+		GraphicsDevice screen = notification.getScreen();
+		if(screen == null) {
+			screen = fTargetScreen;
+			if(screen == null) {
+				screen = screenEnvironment.getScreenUnderPointer();
+			}
+		}
+		// an unplugged screen shows on the main screen. Use its manager so the windows stack together
+		screen = screenEnvironment.resolveScreen(screen);
+		if(screen != notification.getScreen()) {
+			notification = notification.onScreen(screen);
+		}
+		removeUnavailableScreens(screenEnvironment);
+		getManager(screen).showNotification(notification);
+	}
+
+	/**
+	 * Forget the managers of unplugged screens. Their waiting notifications are still shown on the main screen
+	 * @param screenEnvironment the screen environment
+	 */
+	private void removeUnavailableScreens(ScreenEnvironment screenEnvironment) {
+		for(GraphicsDevice screen : fManagers.keySet()) {
+			if(!screenEnvironment.isAvailable(screen)) {
+				fManagers.remove(screen);
+			}
+		}
+	}
+
+	/**
+	 * Get the manager of a screen. Creates it if the screen has none yet
+	 * @param screen the screen
+	 * @return the manager of the screen
+	 */
+	public INotificationManager getManager(GraphicsDevice screen) {
+		INotificationManager manager = fManagers.get(screen);
+		if(manager == null) {
+			manager = fFactory.createManager(screen);
+			final INotificationManager previous = fManagers.putIfAbsent(screen, manager);
+			if(previous != null) {
+				manager = previous;
+			}
+		}
+		return manager;
+	}
+}
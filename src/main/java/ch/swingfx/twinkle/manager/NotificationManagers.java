@@ -15,7 +15,7 @@
 
 package ch.swingfx.twinkle.manager;
 
-import javax.swing.JWindow;
+import ch.swingfx.twinkle.Notification;
 
 /**
  * Provides different types of {@link INotificationManager}
@@ -25,9 +25,48 @@ import javax.swing.JWindow;
 public enum NotificationManagers implements INotificationManager {
 	/** Shows the notifications one after one */
 	SEQUENTIAL {
-		public void showNotification(JWindow window) {
-			SequentialNotificationManager.showNotification(window);
+		public void showNotification(Notification notification) {
+			SequentialNotificationManager.showNotification(notification);
 		}
 		
+	},
+	/** Shows up to {@link StackingNotificationManager#DEFAULT_MAX_VISIBLE} notifications at the same time, stacked */
+	STACKING {
+		public void showNotification(Notification notification) {
+			SharedStackingManager.INSTANCE.showNotification(notification);
+		}
+	},
+	/** Stacks the notifications on the screen the mouse pointer is on. Every screen has its own queue */
+	MULTI_SCREEN {
+		public void showNotification(Notification notification) {
+			SharedMultiScreenManager.INSTANCE.showNotification(notification);
+		}
+	},
+	/** Shows the notifications as fast as possible, stacked. See {@link LowLatencyNotificationManager} */
+	LOW_LATENCY {
+		public void showNotification(Notification notification) {
+			SharedLowLatencyManager.INSTANCE.showNotification(notification);
+		}
+	};
+
+	/**
+	 * Holder of the shared {@link StackingNotificationManager}. Created on first use
+	 */
+	private static final class SharedStackingManager {
+		private static final StackingNotificationManager INSTANCE = new StackingNotificationManager();
+	}
+
+	/**
+	 * Holder of the shared {@link MultiScreenNotificationManager}. Created on first use
+	 */
+	private static final class SharedMultiScreenManager {
+		private static final MultiScreenNotificationManager INSTANCE = new MultiScreenNotificationManager();
+	}
+
+	/**
+	 * Holder of the shared {@link LowLatencyNotificationManager}. Created on first use
+	 */
+	private static final class SharedLowLatencyManager {
+		private static final LowLatencyNotificationManager INSTANCE = new LowLatencyNotificationManager();
 	}
 }
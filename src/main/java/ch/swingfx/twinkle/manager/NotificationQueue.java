@@ -0,0 +1,427 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.swing.SwingUtilities;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Metrics;
+
+/**
+ * FIFO queue of the notifications an {@link INotificationManager} has not shown yet.<br />
+ * The queue is unbounded by default. Call {@link #setCapacity(int)} to bound it and
+ * {@link #setOverflowPolicy(OverflowPolicy)} to decide what happens if it is full.
+ * Register an {@link INotificationQueueListener} to observe the depth of the queue.<br />
+ * A notification with a collapse key replaces a waiting notification with the same key at its place
+ * in the queue. The waiting notifications are indexed by their key, so this is a constant time lookup.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class NotificationQueue {
+	/** capacity of an unbounded queue */
+	public static final int UNBOUNDED = Integer.MAX_VALUE;
+	/** default time in milliseconds {@link OverflowPolicy}.BLOCK waits for room */
+	public static final long DEFAULT_BLOCK_TIMEOUT = 1000;
+
+	/** our lock for synchronization */
+	private final Lock fLock;
+	/** signalled if a notification is removed */
+	private final Condition fNotFull;
+	/** the waiting notifications. guarded by lock */
+	private final LinkedList<Entry> fNotifications;
+	/** the waiting notifications with a collapse key by key. guarded by lock */
+	private final Map<String, Entry> fCollapseIndex;
+	/** guarded by lock */
+	private int fCapacity;
+	/** guarded by lock */
+	private OverflowPolicy fOverflowPolicy;
+	/** guarded by lock */
+	private long fBlockTimeout;
+	/** guarded by lock */
+	private IRejectedNotificationHandler fRejectedHandler;
+	/** number of dropped notifications. guarded by lock */
+	private long fDroppedCount;
+	/** number of rejected notifications. guarded by lock */
+	private long fRejectedCount;
+	/** number of notifications that replaced a waiting notification. guarded by lock */
+	private long fCollapsedCount;
+	private final List<INotificationQueueListener> fListeners;
+
+	/**
+	 * Create an unbounded queue
+	 */
+	public NotificationQueue() {
+		this(UNBOUNDED, OverflowPolicy.DROP_NEWEST);
+	}
+
+	/**
+	 * Create a bounded queue
+	 * @param capacity maximum number of waiting notifications. Must be &gt; 0
+	 * @param overflowPolicy what to do if the queue is full
+	 */
+	public NotificationQueue(int capacity, OverflowPolicy overflowPolicy) {
+		fLock = new ReentrantLock();
+		fNotFull = fLock.newCondition();
+		fNotifications = new LinkedList<Entry>();
+		fCollapseIndex = new HashMap<String, Entry>();
+		fBlockTimeout = DEFAULT_BLOCK_TIMEOUT;
+		fListeners = new CopyOnWriteArrayList<INotificationQueueListener>();
+		setCapacity(capacity);
+		setOverflowPolicy(overflowPolicy);
+	}
+
+	/**
+	 * Set the maximum number of waiting notifications. Notifications that are already
+	 * waiting stay in the queue even if there are more than <code>capacity</code>.
+	 * @param capacity maximum number of waiting notifications. Must be &gt; 0. Use {@link #UNBOUNDED} for no limit
+	 * @return this {@link NotificationQueue}
+	 */
+	public NotificationQueue setCapacity(int capacity) {
+		if(capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be > 0");
+		}
+		try {
+			fLock.lock();
+			fCapacity = capacity;
+			fNotFull.signalAll();
+		} finally {
+			fLock.unlock();
+		}
+		return this;
+	}
+
+	/**
+	 * Set what to do if the queue is full
+	 * @param overflowPolicy the {@link OverflowPolicy}
+	 * @return this {@link NotificationQueue}
+	 */
+	public NotificationQueue setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		if(overflowPolicy == null) {
+			throw new IllegalArgumentException("overflowPolicy can not be null");
+		}
+		try {
+			fLock.lock();
+			fOverflowPolicy = overflowPolicy;
+		} finally {
+			fLock.unlock();
+		}
+		return this;
+	}
+
+	/**
+	 * Set how long {@link OverflowPolicy}.BLOCK waits for room
+	 * @param timeoutInMillis time in milliseconds
+	 * @return this {@link NotificationQueue}
+	 */
+	public NotificationQueue setBlockTimeout(long timeoutInMillis) {
+		try {
+			fLock.lock();
+			fBlockTimeout = Math.max(0, timeoutInMillis);
+		} finally {
+			fLock.unlock();
+		}
+		return this;
+	}
+
+	/**
+	 * Set the handler for notifications {@link OverflowPolicy}.REJECT did not queue
+	 * @param handler the handler - can be null
+	 * @return this {@link NotificationQueue}
+	 */
+	public NotificationQueue setRejectedNotificationHandler(IRejectedNotificationHandler handler) {
+		try {
+			fLock.lock();
+			fRejectedHandler = handler;
+		} finally {
+			fLock.unlock();
+		}
+		return this;
+	}
+
+	/**
+	 * Add a listener that observes this queue
+	 * @param listener the listener
+	 */
+	public void addQueueListener(INotificationQueueListener listener) {
+		fListeners.add(listener);
+	}
+
+	/**
+	 * Remove a listener
+	 * @param listener the listener
+	 */
+	public void removeQueueListener(INotificationQueueListener listener) {
+		fListeners.remove(listener);
+	}
+
+	/**
+	 * Add a notification at the end of the queue. If a notification with the same collapse key is waiting,
+	 * the new notification takes its place instead. If the queue is full the {@link OverflowPolicy} decides what happens.
+	 * @param notification the notification
+	 * @return true if the notification was queued
+	 */
+	public boolean offer(Notification notification) {
+		boolean queued = false;
+		// true if we dropped a notification. Ours or the oldest
+		boolean dropped = false;
+		IRejectedNotificationHandler rejectedHandler = null;
+		try {
+			fLock.lock();
+			if(collapse(notification)) {
+				queued = true;
+			} else if(fNotifications.size() >= fCapacity) {
+				switch(fOverflowPolicy) {
+					case DROP_OLDEST:
+						removeFirst();
+						fDroppedCount++;
+						dropped = true;
+						break;
+					case BLOCK:
+						awaitNotFull();
+						// somebody may have queued a notification with our key while we waited
+						queued = collapse(notification);
+						break;
+					case REJECT:
+						rejectedHandler = fRejectedHandler;
+						break;
+				}
+			}
+			if(!queued) {
+				if(fNotifications.size() < fCapacity) {
+					final Entry entry = new Entry(notification);
+					fNotifications.addLast(entry);
+					if(notification.getCollapseKey() != null) {
+						fCollapseIndex.put(notification.getCollapseKey(), entry);
+					}
+					queued = true;
+				} else if(fOverflowPolicy == OverflowPolicy.REJECT) {
+					fRejectedCount++;
+					dropped = true;
+				} else {
+					fDroppedCount++;
+					dropped = true;
+				}
+			}
+		} finally {
+			fLock.unlock();
+		}
+		if(rejectedHandler != null && !queued) {
+			rejectedHandler.rejected(notification, this);
+		}
+		if(dropped) {
+			final IMetricsCollector collector = Metrics.getCollector();
+			if(collector != null) {
+				collector.recordDroppedNotification();
+			}
+		}
+		fireQueueChanged();
+		return queued;
+	}
+
+	/**
+	 * Replace the waiting notification with the same collapse key. Call with the lock held
+	 * @param notification the new notification
+	 * @return true if a waiting notification was replaced
+	 */
+	private boolean collapse(Notification notification) {
+		final String key = notification.getCollapseKey();
+		if(key == null) {
+			return false;
+		}
+		final Entry entry = fCollapseIndex.get(key);
+		if(entry == null) {
+			return false;
+		}
+		entry.fNotification = notification.mergeWith(entry.fNotification);
+		fCollapsedCount++;
+		return true;
+	}
+
+	/**
+	 * Remove the first entry. Call with the lock held
+	 * @return the first entry or null if the queue is empty
+	 */
+	private Entry removeFirst() {
+		final Entry entry = fNotifications.poll();
+		if(entry != null) {
+			final String key = entry.fNotification.getCollapseKey();
+			if(key != null) {
+				fCollapseIndex.remove(key);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Wait until the queue is not full or the block timeout is over. Call with the lock held
+	 */
+	private void awaitNotFull() {
+		if(SwingUtilities.isEventDispatchThread()) {
+			// only the EDT makes room. Waiting here would wait forever
+			return;
+		}
+		long nanos = TimeUnit.MILLISECONDS.toNanos(fBlockTimeout);
+		try {
+			while(fNotifications.size() >= fCapacity && nanos > 0) {
+				nanos = fNotFull.awaitNanos(nanos);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Remove the first notification
+	 * @return the first notification or null if the queue is empty
+	 */
+	public Notification poll() {
+		Notification notification = null;
+		try {
+			fLock.lock();
+			final Entry entry = removeFirst();
+			if(entry != null) {
+				notification = entry.fNotification;
+				fNotFull.signal();
+			}
+		} finally {
+			fLock.unlock();
+		}
+		if(notification != null) {
+			fireQueueChanged();
+		}
+		return notification;
+	}
+
+	/**
+	 * Get the number of waiting notifications
+	 * @return the number of waiting notifications
+	 */
+	public int getDepth() {
+		try {
+			fLock.lock();
+			return fNotifications.size();
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Check if there are waiting notifications
+	 * @return true if no notification is waiting
+	 */
+	public boolean isEmpty() {
+		return getDepth() == 0;
+	}
+
+	/**
+	 * Get the maximum number of waiting notifications
+	 * @return the capacity or {@link #UNBOUNDED}
+	 */
+	public int getCapacity() {
+		try {
+			fLock.lock();
+			return fCapacity;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the {@link OverflowPolicy}
+	 * @return the {@link OverflowPolicy}
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		try {
+			fLock.lock();
+			return fOverflowPolicy;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of notifications that were dropped because the queue was full
+	 * @return the number of dropped notifications
+	 */
+	public long getDroppedCount() {
+		try {
+			fLock.lock();
+			return fDroppedCount;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of notifications that were rejected because the queue was full
+	 * @return the number of rejected notifications
+	 */
+	public long getRejectedCount() {
+		try {
+			fLock.lock();
+			return fRejectedCount;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of notifications that replaced a waiting notification with the same collapse key
+	 * @return the number of collapsed notifications
+	 */
+	public long getCollapsedCount() {
+		try {
+			fLock.lock();
+			return fCollapsedCount;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	private void fireQueueChanged() {
+		final IMetricsCollector collector = Metrics.getCollector();
+		if(collector != null) {
+			collector.recordQueueDepth(getDepth());
+		}
+		for(INotificationQueueListener listener : fListeners) {
+			listener.queueChanged(this);
+		}
+	}
+
+	/**
+	 * Place of a notification in the queue. A collapsed notification replaces the notification of the entry
+	 */
+	private static final class Entry {
+		/** guarded by the lock of the queue */
+		private Notification fNotification;
+
+		Entry(Notification notification) {
+			fNotification = notification;
+		}
+	}
+}
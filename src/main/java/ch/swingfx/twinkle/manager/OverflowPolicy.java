@@ -0,0 +1,43 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+/**
+ * Tells a bounded {@link NotificationQueue} what to do with a notification if it is full
+ * @author Heinrich Spreiter
+ *
+ */
+public enum OverflowPolicy {
+	/**
+	 * Drop the new notification.
+	 */
+	DROP_NEWEST,
+	/**
+	 * Drop the oldest waiting notification to make room for the new one.
+	 */
+	DROP_OLDEST,
+	/**
+	 * Block the thread that shows the notification until there is room or the
+	 * block timeout is over. If the timeout is over the new notification is dropped.
+	 * The EDT is never blocked because it is the thread that makes room.
+	 */
+	BLOCK,
+	/**
+	 * Don't queue the new notification and pass it to the {@link IRejectedNotificationHandler}
+	 * of the queue.
+	 */
+	REJECT
+}
@@ -0,0 +1,288 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import javax.swing.JWindow;
+import javax.swing.Timer;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.NotificationPriority;
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Metrics;
+
+/**
+ * Shows the notifications one after one, the highest {@link NotificationPriority} first.
+ * Notifications with the same priority are shown in the order they arrived.<br />
+ * If a notification with a higher priority than the visible one arrives, the visible one is closed
+ * as soon as it was visible for the minimum display time. Its listener receives a closed event.<br />
+ * Every priority has its own FIFO queue, so adding and removing a notification takes constant time
+ * no matter how many notifications are waiting. Like {@link EdtSequentialNotificationManager} the
+ * state is confined to the EDT and producers hand over their notifications through an {@link EdtInbox}.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class PriorityNotificationManager implements INotificationManager {
+	/** default delay before we show the notification in milliseconds */
+	public static final int DEFAULT_DELAY = 250;
+	/** default time in milliseconds a notification is visible before a notification with a higher priority replaces it */
+	public static final int DEFAULT_MIN_DISPLAY_TIME = 1000;
+
+	private static final NotificationPriority[] sPriorities = NotificationPriority.values();
+
+	private final EdtInbox<Notification> fInbox;
+	/** the waiting notifications. One queue per priority. EDT only */
+	private final LinkedList<Entry>[] fQueues;
+	/** the waiting notifications with a collapse key by key. EDT only */
+	private final Map<String, Entry> fCollapseIndex;
+	/** the visible notification if it has a collapse key */
+	private final VisibleNotifications fVisible;
+	private final int fMinDisplayTime;
+	/** shows the next notification after the delay */
+	private final Timer fDelayTimer;
+	/** closes the visible notification when its minimum display time is over */
+	private final Timer fPreemptTimer;
+	/** number of waiting notifications */
+	private volatile int fPendingCount;
+	/** true if a window is open or about to open. EDT only */
+	private boolean fWindowOpen;
+	/** the visible notification and its window. null if there is none. EDT only */
+	private Notification fVisibleNotification;
+	private JWindow fVisibleWindow;
+	/** time the visible window was shown. See System.nanoTime(). EDT only */
+	private long fShownAt;
+
+	/**
+	 * Create a manager with the default delay and minimum display time
+	 */
+	public PriorityNotificationManager() {
+		this(DEFAULT_DELAY, DEFAULT_MIN_DISPLAY_TIME);
+	}
+
+	/**
+	 * Create a manager
+	 * @param delayInMillis delay before a notification is shown
+	 * @param minDisplayTimeInMillis time a notification is visible before a notification with a higher priority replaces it
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public PriorityNotificationManager(int delayInMillis, int minDisplayTimeInMillis) {
+		fMinDisplayTime = minDisplayTimeInMillis;
+		fQueues = new LinkedList[sPriorities.length];
+		for(int i = 0; i < fQueues.length; i++) {
+			fQueues[i] = new LinkedList<Entry>();
+		}
+		fCollapseIndex = new HashMap<String, Entry>();
+		fVisible = new VisibleNotifications();
+		fInbox = new EdtInbox<Notification>() {
+			@Override
+			protected void deliver(Notification notification) {
+				enqueue(notification);
+			}
+		};
+		fDelayTimer = new Timer(delayInMillis, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				showNext();
+			}
+		});
+		fDelayTimer.setRepeats(false);
+		fPreemptTimer = new Timer(minDisplayTimeInMillis, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				if(fVisibleWindow != null) {
+					Notification.closeWindow(fVisibleWindow);
+				}
+			}
+		});
+		fPreemptTimer.setRepeats(false);
+	}
+
+	/**
+	 * Get the number of notifications that wait to be displayed
+	 * @return the number of waiting notifications
+	 */
+	public int getPendingCount() {
+		return fPendingCount;
+	}
+
+	public void showNotification(Notification notification) {
+		fInbox.post(notification);
+	}
+
+	/**
+	 * Add a notification to the queue of its priority. EDT only
+	 * @param notification notification to show
+	 */
+	private void enqueue(Notification notification) {
+		if(fVisible.isVisible(notification) && fVisible.refresh(notification) != null) {
+			return;
+		}
+		final String key = notification.getCollapseKey();
+		final Entry waiting = key == null ? null : fCollapseIndex.get(key);
+		if(waiting != null) {
+			final Notification merged = notification.mergeWith(waiting.fNotification);
+			if(merged.getPriority() == waiting.fNotification.getPriority()) {
+				// keep the place in the queue
+				waiting.fNotification = merged;
+			} else {
+				// move to the queue of the higher priority. poll() skips the old entry
+				waiting.fNotification = null;
+				fPendingCount--;
+				add(merged);
+			}
+		} else {
+			add(notification);
+		}
+		recordQueueDepth();
+		if(fVisibleNotification != null && notification.getPriority().isHigherThan(fVisibleNotification.getPriority())) {
+			preemptVisible();
+		}
+		nextWindow();
+	}
+
+	private void add(Notification notification) {
+		final Entry entry = new Entry(notification);
+		fQueues[notification.getPriority().ordinal()].addLast(entry);
+		if(notification.getCollapseKey() != null) {
+			fCollapseIndex.put(notification.getCollapseKey(), entry);
+		}
+		fPendingCount++;
+	}
+
+	/**
+	 * Remove the waiting notification with the highest priority. EDT only
+	 * @return the notification or null if none is waiting
+	 */
+	private Notification poll() {
+		for(int i = fQueues.length - 1; i >= 0; i--) {
+			final LinkedList<Entry> queue = fQueues[i];
+			Entry entry;
+			while((entry = queue.poll()) != null) {
+				final Notification notification = entry.fNotification;
+				if(notification == null) {
+					// moved to a higher priority
+					continue;
+				}
+				final String key = notification.getCollapseKey();
+				if(key != null && fCollapseIndex.get(key) == entry) {
+					fCollapseIndex.remove(key);
+				}
+				fPendingCount--;
+				return notification;
+			}
+		}
+		return null;
+	}
+
+	private void recordQueueDepth() {
+		final IMetricsCollector collector = Metrics.getCollector();
+		if(collector != null) {
+			collector.recordQueueDepth(fPendingCount);
+		}
+	}
+
+	/**
+	 * Close the visible notification now or when its minimum display time is over. EDT only
+	 */
+	private void preemptVisible() {
+		if(fPreemptTimer.isRunning()) {
+			return;
+		}
+		final long visibleMillis = (System.nanoTime() - fShownAt) / 1000000L;
+		final long remaining = fMinDisplayTime - visibleMillis;
+		if(remaining <= 0) {
+			Notification.closeWindow(fVisibleWindow);
+		} else {
+			fPreemptTimer.setInitialDelay((int) remaining);
+			fPreemptTimer.restart();
+		}
+	}
+
+	/**
+	 * Start the delay for the next notification if no window is open. EDT only
+	 */
+	private void nextWindow() {
+		if(fWindowOpen || fPendingCount == 0) {
+			return;
+		}
+		fWindowOpen = true;
+		fDelayTimer.restart();
+	}
+
+	/**
+	 * Shows the waiting notification with the highest priority. Polled after the delay
+	 * so a notification with a higher priority that arrived during the delay goes first. EDT only
+	 */
+	private void showNext() {
+		final Notification notification = poll();
+		if(notification == null) {
+			fWindowOpen = false;
+			return;
+		}
+		recordQueueDepth();
+		final JWindow window;
+		try {
+			window = notification.createWindow();
+		} catch (RuntimeException e) {
+			// don't block the queue because of a broken notification
+			windowClosed();
+			throw e;
+		}
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				window.removeWindowListener(this);
+				fVisible.closed(notification, window);
+				PriorityNotificationManager.this.windowClosed();
+			}
+		});
+		fVisible.shown(notification, window);
+		fVisibleNotification = notification;
+		fVisibleWindow = window;
+		fShownAt = System.nanoTime();
+		window.setVisible(true);
+		window.getGlassPane().setVisible(true);
+	}
+
+	/**
+	 * Called if the open window is closed. EDT only
+	 */
+	private void windowClosed() {
+		fPreemptTimer.stop();
+		fVisibleNotification = null;
+		fVisibleWindow = null;
+		fWindowOpen = false;
+		nextWindow();
+	}
+
+	/**
+	 * Place of a notification in its queue
+	 */
+	private static final class Entry {
+		/** null if the notification moved to another queue */
+		private Notification fNotification;
+
+		Entry(Notification notification) {
+			fNotification = notification;
+		}
+	}
+}
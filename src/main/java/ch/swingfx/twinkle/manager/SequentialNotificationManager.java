@@ -19,15 +19,21 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.util.LinkedList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.swing.JWindow;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
+import ch.swingfx.twinkle.Notification;
+
 /**
- * I manage the notification windows and show the one after one
+ * I manage the notifications and show the one after one.<br />
+ * The queue only holds the {@link Notification}s. The window of a notification is created
+ * when it is its turn to be displayed.<br />
+ * All notifications of the application share this manager. Use {@link EdtSequentialNotificationManager}
+ * for independent managers without a lock on the way to the screen.
  * @author Heinrich Spreiter
  *
  */
@@ -41,55 +47,86 @@ public class SequentialNotificationManager {
 	private static final int DELAY = 250;
 	/** our lock for synchronization */
 	private static final Lock sLock;
-	/** list of all windows we want to display. guarded by lock */
-	private static final LinkedList<JWindow> sWindows;
+	/** all notifications we want to display */
+	private static final NotificationQueue sQueue;
 	/** true if a window is open. guarded by lock */
 	private static boolean sWindowOpen = false;
+	/** the visible notification if it has a collapse key */
+	private static final VisibleNotifications sVisible;
 
 	static {
 		sLock = new ReentrantLock(true);
-		sWindows = new LinkedList<JWindow>();
+		sQueue = new NotificationQueue();
+		sVisible = new VisibleNotifications();
 	}
 
 
+	/**
+	 * Get the queue of the notifications that wait to be displayed.
+	 * Use it to bound the queue or to observe its depth. Example
+	 * <code>
+	 *     <pre>
+	 *         SequentialNotificationManager.getQueue().setCapacity(100).setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+	 *     </pre>
+	 * </code>
+	 * @return the queue
+	 */
+	public static NotificationQueue getQueue() {
+		return sQueue;
+	}
+
 	/**
 	 * Shows the notification
-	 * @param window window to show
+	 * @param notification notification to show
 	 */
-	protected static void showNotification(final JWindow window) {
-		try {
-			sLock.lock();
-			sWindows.addLast(window);
-			window.addWindowListener(new WindowAdapter() {
-				@Override
-				public void windowClosed(WindowEvent e) {
-					window.removeWindowListener(this);
-					sWindowOpen = false;
-					nextWindow();
+	protected static void showNotification(final Notification notification) {
+		if(sVisible.isVisible(notification)) {
+			// update the visible window instead of queueing a new one
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					if(sVisible.mergePending(notification)) {
+						return;
+					}
+					if(sVisible.refresh(notification) == null) {
+						enqueue(notification);
+					}
 				}
 			});
+			return;
+		}
+		enqueue(notification);
+	}
+
+	/**
+	 * Adds the notification to the queue
+	 * @param notification notification to show
+	 */
+	private static void enqueue(Notification notification) {
+		// not under our lock because the queue may block until the EDT made room
+		if(sQueue.offer(notification)) {
 			nextWindow();
-		} finally {
-			sLock.unlock();
 		}
 	}
 
 	/**
-	 * shows the next window on the stack
+	 * shows the next notification on the stack
 	 */
 	private static void nextWindow() {
 		try {
 			sLock.lock();
-			if(!sWindowOpen && sWindows.size() > 0) {
+			if(sWindowOpen) {
+				return;
+			}
+			final Notification notification = sQueue.poll();
+			if(notification != null) {
 				sWindowOpen = true;
-				final JWindow window = sWindows.removeFirst();
+				// it left the queue, so later notifications with the same key must find it here
+				sVisible.pending(notification);
 				Timer delayVisibleTimer = new Timer(DELAY, new ActionListener() {
 					public void actionPerformed(ActionEvent e) {
 						final Timer t = (Timer) e.getSource();
 						t.stop();
-						window.setVisible(true);
-						window.getGlassPane().setVisible(true);
-
+						showWindow(notification);
 					}
 				});
 				delayVisibleTimer.start();
@@ -99,6 +136,47 @@ public class SequentialNotificationManager {
 		}
 	}
 
+	/**
+	 * Creates the window of the notification and shows it. Called on the EDT
+	 * @param pending notification to show
+	 */
+	private static void showWindow(Notification pending) {
+		final Notification notification = sVisible.takePending(pending);
+		final JWindow window;
+		try {
+			window = notification.createWindow();
+		} catch (RuntimeException e) {
+			// don't block the queue because of a broken notification
+			sVisible.closed(notification, null);
+			windowClosed();
+			throw e;
+		}
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				window.removeWindowListener(this);
+				sVisible.closed(notification, window);
+				SequentialNotificationManager.windowClosed();
+			}
+		});
+		sVisible.shown(notification, window);
+		window.setVisible(true);
+		window.getGlassPane().setVisible(true);
+	}
+
+	/**
+	 * Called if the open window is closed
+	 */
+	private static void windowClosed() {
+		try {
+			sLock.lock();
+			sWindowOpen = false;
+			nextWindow();
+		} finally {
+			sLock.unlock();
+		}
+	}
+
 
 
 }
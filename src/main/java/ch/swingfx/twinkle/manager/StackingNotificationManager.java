@@ -0,0 +1,382 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.swing.JWindow;
+import javax.swing.SwingUtilities;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.window.IPosition;
+
+/**
+ * Shows up to <code>maxVisible</code> notifications at the same time. The windows are stacked
+ * starting at the {@link IPosition} of the notification: downwards for positions in the upper half
+ * of the screen, upwards for positions in the lower half. If a window closes the remaining windows
+ * move together and the next waiting notification is shown. Notifications with different positions
+ * or on different screens are stacked independently.<br />
+ * Every visible window occupies a slot. Free slots are kept on a stack and the visible slots in a
+ * linked list in display order, so taking and returning a slot is O(1).
+ * @author Heinrich Spreiter
+ *
+ */
+public class StackingNotificationManager implements INotificationManager {
+	/** default number of notifications visible at the same time */
+	public static final int DEFAULT_MAX_VISIBLE = 5;
+	/** default space between two windows in pixels */
+	public static final int DEFAULT_SPACING = 10;
+	/** marks the end of the list of visible slots */
+	private static final int NONE = -1;
+
+	private final int fSpacing;
+	/** our lock for synchronization */
+	private final Lock fLock;
+	/** notifications waiting for a free slot */
+	private final NotificationQueue fQueue;
+	/** the visible notifications that have a collapse key */
+	private final VisibleNotifications fVisible;
+	/** true if showPending() is scheduled on the EDT. guarded by lock */
+	private boolean fShowPendingScheduled;
+
+	/** the slots. guarded by lock */
+	private final Slot[] fSlots;
+	/** stack of free slot indices. guarded by lock */
+	private final int[] fFreeSlots;
+	/** number of indices on fFreeSlots. guarded by lock */
+	private int fFreeCount;
+	/** first and last visible slot in display order. guarded by lock */
+	private int fFirst;
+	private int fLast;
+
+	/**
+	 * Create a manager that shows {@link #DEFAULT_MAX_VISIBLE} notifications at the same time
+	 */
+	public StackingNotificationManager() {
+		this(DEFAULT_MAX_VISIBLE);
+	}
+
+	/**
+	 * Create a manager
+	 * @param maxVisible maximum number of notifications visible at the same time. Must be &gt; 0
+	 */
+	public StackingNotificationManager(int maxVisible) {
+		this(maxVisible, DEFAULT_SPACING);
+	}
+
+	/**
+	 * Create a manager
+	 * @param maxVisible maximum number of notifications visible at the same time. Must be &gt; 0
+	 * @param spacing space between two windows in pixels
+	 */
+	public StackingNotificationManager(int maxVisible, int spacing) {
+		this(maxVisible, spacing, new NotificationQueue());
+	}
+
+	/**
+	 * Create a manager
+	 * @param maxVisible maximum number of notifications visible at the same time. Must be &gt; 0
+	 * @param spacing space between two windows in pixels
+	 * @param queue queue for the notifications that wait for a free slot
+	 */
+	public StackingNotificationManager(int maxVisible, int spacing, NotificationQueue queue) {
+		if(maxVisible <= 0) {
+			throw new IllegalArgumentException("maxVisible must be > 0");
+		}
+		fSpacing = spacing;
+		fLock = new ReentrantLock();
+		fQueue = queue;
+		fVisible = new VisibleNotifications();
+		fSlots = new Slot[maxVisible];
+		fFreeSlots = new int[maxVisible];
+		for(int i = 0; i < maxVisible; i++) {
+			fSlots[i] = new Slot();
+			// lowest index on top of the stack
+			fFreeSlots[i] = maxVisible - 1 - i;
+		}
+		fFreeCount = maxVisible;
+		fFirst = NONE;
+		fLast = NONE;
+	}
+
+	/**
+	 * Get the maximum number of notifications visible at the same time
+	 * @return the maximum number of visible notifications
+	 */
+	public int getMaxVisible() {
+		return fSlots.length;
+	}
+
+	/**
+	 * Get the queue of the notifications that wait for a free slot
+	 * @return the queue
+	 */
+	public NotificationQueue getQueue() {
+		return fQueue;
+	}
+
+	public void showNotification(final Notification notification) {
+		if(fVisible.isVisible(notification)) {
+			// update the visible window instead of queueing a new one
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					final JWindow window = fVisible.refresh(notification);
+					if(window == null) {
+						enqueue(notification);
+					} else {
+						refreshed(window);
+					}
+				}
+			});
+			return;
+		}
+		enqueue(notification);
+	}
+
+	/**
+	 * Adds the notification to the queue
+	 * @param notification notification to show
+	 */
+	private void enqueue(Notification notification) {
+		// not under our lock because the queue may block until the EDT made room
+		if(!fQueue.offer(notification)) {
+			return;
+		}
+		try {
+			fLock.lock();
+			scheduleShowPending();
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Schedule {@link #showPending()} on the EDT if there is a free slot. Call with the lock held
+	 */
+	private void scheduleShowPending() {
+		if(fShowPendingScheduled || fFreeCount == 0 || fQueue.isEmpty()) {
+			return;
+		}
+		fShowPendingScheduled = true;
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				showPending();
+			}
+		});
+	}
+
+	/**
+	 * Show waiting notifications until all slots are taken. Called on the EDT
+	 */
+	private void showPending() {
+		while(true) {
+			final int slot;
+			final Notification notification;
+			try {
+				fLock.lock();
+				if(fFreeCount == 0) {
+					fShowPendingScheduled = false;
+					return;
+				}
+				notification = fQueue.poll();
+				if(notification == null) {
+					fShowPendingScheduled = false;
+					return;
+				}
+				slot = fFreeSlots[--fFreeCount];
+			} finally {
+				fLock.unlock();
+			}
+			showWindow(slot, notification);
+		}
+	}
+
+	/**
+	 * Creates the window of the notification and shows it in the slot. Called on the EDT
+	 * @param slot the slot for the window
+	 * @param notification the notification to show
+	 */
+	private void showWindow(final int slot, final Notification notification) {
+		final JWindow window;
+		try {
+			window = createWindow(notification);
+		} catch (RuntimeException e) {
+			// don't lose the slot or stop showing the waiting notifications because of a broken notification
+			try {
+				fLock.lock();
+				fFreeSlots[fFreeCount++] = slot;
+				fShowPendingScheduled = false;
+				scheduleShowPending();
+			} finally {
+				fLock.unlock();
+			}
+			throw e;
+		}
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				window.removeWindowListener(this);
+				fVisible.closed(notification, window);
+				freeSlot(slot);
+			}
+		});
+		fVisible.shown(notification, window);
+		try {
+			fLock.lock();
+			final Slot s = fSlots[slot];
+			s.fWindow = window;
+			s.fX = window.getX();
+			s.fY = window.getY();
+			// the window may be 0x0 until it fades in
+			s.fHeight = window.getPreferredSize().height;
+			s.fPosition = notification.getPosition();
+			s.fScreen = window.getGraphicsConfiguration().getDevice();
+			final Rectangle screen = window.getGraphicsConfiguration().getBounds();
+			s.fStackUpwards = s.fY + s.fHeight / 2 > screen.y + screen.height / 2;
+			// append to the visible slots
+			s.fPrevious = fLast;
+			s.fNext = NONE;
+			if(fLast == NONE) {
+				fFirst = slot;
+			} else {
+				fSlots[fLast].fNext = slot;
+			}
+			fLast = slot;
+			reflow();
+		} finally {
+			fLock.unlock();
+		}
+		window.setVisible(true);
+		window.getGlassPane().setVisible(true);
+	}
+
+	/**
+	 * Create the window of a notification. Called on the EDT
+	 * @param notification the notification
+	 * @return the window. Not visible yet
+	 */
+	protected JWindow createWindow(Notification notification) {
+		return notification.createWindow();
+	}
+
+	/**
+	 * Called if a visible window shows new content and may have a new size. Called on the EDT
+	 * @param window the window
+	 */
+	private void refreshed(JWindow window) {
+		try {
+			fLock.lock();
+			for(int i = fFirst; i != NONE; i = fSlots[i].fNext) {
+				final Slot s = fSlots[i];
+				if(s.fWindow == window) {
+					// the window is at its position without stacking again
+					s.fX = window.getX();
+					s.fY = window.getY();
+					s.fHeight = window.getPreferredSize().height;
+					reflow();
+					return;
+				}
+			}
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Called if the window in the slot is closed. Called on the EDT
+	 * @param slot the slot of the closed window
+	 */
+	private void freeSlot(int slot) {
+		try {
+			fLock.lock();
+			final Slot s = fSlots[slot];
+			// remove from the visible slots
+			if(s.fPrevious == NONE) {
+				fFirst = s.fNext;
+			} else {
+				fSlots[s.fPrevious].fNext = s.fNext;
+			}
+			if(s.fNext == NONE) {
+				fLast = s.fPrevious;
+			} else {
+				fSlots[s.fNext].fPrevious = s.fPrevious;
+			}
+			s.fWindow = null;
+			s.fPosition = null;
+			s.fScreen = null;
+			fFreeSlots[fFreeCount++] = slot;
+			reflow();
+			scheduleShowPending();
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Moves the visible windows so they are stacked without gaps. Every window is stacked on the
+	 * previous visible window of the same stack. Called on the EDT with the lock held
+	 */
+	private void reflow() {
+		for(int i = fFirst; i != NONE; i = fSlots[i].fNext) {
+			final Slot s = fSlots[i];
+			s.fOffset = 0;
+			for(int j = s.fPrevious; j != NONE; j = fSlots[j].fPrevious) {
+				final Slot below = fSlots[j];
+				if(below.isSameStack(s)) {
+					s.fOffset = below.fOffset + below.fHeight + fSpacing;
+					break;
+				}
+			}
+			s.fWindow.setLocation(s.fX, s.fStackUpwards ? s.fY - s.fOffset : s.fY + s.fOffset);
+		}
+	}
+
+	/**
+	 * A place for one visible window
+	 */
+	private static final class Slot {
+		private JWindow fWindow;
+		/** position calculated by the {@link IPosition} of the notification */
+		private int fX;
+		private int fY;
+		private int fHeight;
+		private boolean fStackUpwards;
+		/** the stack of the window. See {@link #isSameStack(Slot)} */
+		private IPosition fPosition;
+		private GraphicsDevice fScreen;
+		/** distance to the position of the window caused by the windows below it in the stack */
+		private int fOffset;
+		/** previous and next visible slot in display order */
+		private int fPrevious;
+		private int fNext;
+
+		/**
+		 * Check if two windows are stacked on each other
+		 * @param other the other slot
+		 * @return true if both windows have the same position on the same screen
+		 */
+		private boolean isSameStack(Slot other) {
+			return fStackUpwards == other.fStackUpwards
+					&& (fPosition == null ? other.fPosition == null : fPosition.equals(other.fPosition))
+					&& (fScreen == null ? other.fScreen == null : fScreen.equals(other.fScreen));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.event.INotificationEventListener;
+import ch.swingfx.twinkle.event.NotificationEvent;
+
+/**
+ * Listener of a summary notification that forwards every event to the listeners of the
+ * summarized notifications. Each of them receives an event with the source and id of its own notification,
+ * so a listener that waits for the closed event of its notification also gets it if the notification was summarized.
+ * Use it in your {@link INotificationSummarizer}.
+ * @author Heinrich Spreiter
+ *
+ */
+public class SummarizedNotificationListener implements INotificationEventListener {
+	private final List<Notification> fNotifications;
+
+	/**
+	 * Create a new listener
+	 * @param notifications the summarized notifications
+	 */
+	public SummarizedNotificationListener(List<Notification> notifications) {
+		fNotifications = new ArrayList<Notification>(notifications);
+	}
+
+	public void opened(NotificationEvent event) {
+		for(Notification notification : fNotifications) {
+			notification.getListener().opened(newEvent(notification));
+		}
+	}
+
+	public void clicked(NotificationEvent event) {
+		for(Notification notification : fNotifications) {
+			notification.getListener().clicked(newEvent(notification));
+		}
+	}
+
+	public void mouseOver(NotificationEvent event) {
+		for(Notification notification : fNotifications) {
+			notification.getListener().mouseOver(newEvent(notification));
+		}
+	}
+
+	public void mouseOut(NotificationEvent event) {
+		for(Notification notification : fNotifications) {
+			notification.getListener().mouseOut(newEvent(notification));
+		}
+	}
+
+	public void closed(NotificationEvent event) {
+		for(Notification notification : fNotifications) {
+			notification.getListener().closed(newEvent(notification));
+		}
+	}
+
+	private static NotificationEvent newEvent(Notification notification) {
+		return new NotificationEvent(notification.getSource(), notification.getId());
+	}
+}
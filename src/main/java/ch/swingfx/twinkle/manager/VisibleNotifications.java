@@ -0,0 +1,156 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.manager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.JWindow;
+
+import ch.swingfx.twinkle.Notification;
+
+/**
+ * Keeps track of the visible notifications that have a collapse key so a manager
+ * can update their windows instead of queueing a new notification with the same key.
+ * A notification that left the queue but waits for its window is pending, new notifications
+ * with the same key are merged into it.<br />
+ * isVisible() and pending() can be called from any thread, the other methods only on the EDT.
+ * @author Heinrich Spreiter
+ *
+ */
+final class VisibleNotifications {
+	/** visible notifications by collapse key */
+	private final Map<String, Visible> fVisible;
+
+	VisibleNotifications() {
+		fVisible = new ConcurrentHashMap<String, Visible>();
+	}
+
+	/**
+	 * Check if a notification with the collapse key of <code>notification</code> is visible
+	 * @param notification the notification
+	 * @return true if a notification with the same collapse key is visible
+	 */
+	boolean isVisible(Notification notification) {
+		final String key = notification.getCollapseKey();
+		return key != null && fVisible.containsKey(key);
+	}
+
+	/**
+	 * Called when a notification left the queue and waits for its window
+	 * @param notification the notification
+	 */
+	void pending(Notification notification) {
+		final String key = notification.getCollapseKey();
+		if(key != null) {
+			fVisible.put(key, new Visible(notification, null));
+		}
+	}
+
+	/**
+	 * Merge <code>notification</code> into the pending notification with the same collapse key
+	 * @param notification the notification
+	 * @return true if it was merged, false if there is no pending notification for the key
+	 */
+	boolean mergePending(Notification notification) {
+		final String key = notification.getCollapseKey();
+		if(key == null) {
+			return false;
+		}
+		final Visible pending = fVisible.get(key);
+		if(pending == null || pending.fWindow != null) {
+			return false;
+		}
+		fVisible.put(key, new Visible(notification.mergeWith(pending.fNotification), null));
+		return true;
+	}
+
+	/**
+	 * Get the notification to show for a pending notification
+	 * @param notification the pending notification
+	 * @return the pending notification with everything merged into it while it waited
+	 */
+	Notification takePending(Notification notification) {
+		final String key = notification.getCollapseKey();
+		if(key == null) {
+			return notification;
+		}
+		final Visible pending = fVisible.get(key);
+		if(pending == null || pending.fWindow != null) {
+			return notification;
+		}
+		return pending.fNotification;
+	}
+
+	/**
+	 * Called when the window of a notification is shown
+	 * @param notification the notification
+	 * @param window the window of the notification
+	 */
+	void shown(Notification notification, JWindow window) {
+		final String key = notification.getCollapseKey();
+		if(key != null) {
+			fVisible.put(key, new Visible(notification, window));
+		}
+	}
+
+	/**
+	 * Called when the window of a notification is closed
+	 * @param notification the notification
+	 * @param window the window of the notification - null if the pending notification got no window
+	 */
+	void closed(Notification notification, JWindow window) {
+		final String key = notification.getCollapseKey();
+		if(key != null) {
+			final Visible visible = fVisible.get(key);
+			if(visible != null && visible.fWindow == window) {
+				fVisible.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Show <code>notification</code> in the visible window with the same collapse key
+	 * @param notification the notification
+	 * @return the updated window or null if there is no window for the key or it could not be updated
+	 */
+	JWindow refresh(Notification notification) {
+		final String key = notification.getCollapseKey();
+		if(key == null) {
+			return null;
+		}
+		final Visible visible = fVisible.get(key);
+		if(visible == null || visible.fWindow == null) {
+			return null;
+		}
+		final Notification merged = notification.mergeWith(visible.fNotification);
+		if(!merged.refreshWindow(visible.fWindow)) {
+			return null;
+		}
+		fVisible.put(key, new Visible(merged, visible.fWindow));
+		return visible.fWindow;
+	}
+
+	private static final class Visible {
+		private final Notification fNotification;
+		private final JWindow fWindow;
+
+		Visible(Notification notification, JWindow window) {
+			fNotification = notification;
+			fWindow = window;
+		}
+	}
+}
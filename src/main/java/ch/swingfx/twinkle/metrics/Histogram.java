@@ -0,0 +1,149 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of positive long values with a fixed memory footprint.<br />
+ * Every power of two is split into {@value #SUB_BUCKET_COUNT} buckets, so a percentile is
+ * at most about 6% above the real value. Recording a value is one increment of an atomic
+ * counter without locks or allocation.<br />
+ * This class is thread safe. A percentile read while values are recorded is an estimate.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class Histogram {
+	/** number of buckets per power of two */
+	public static final int SUB_BUCKET_COUNT = 16;
+	private static final int SUB_BUCKET_BITS = 4;
+	/** values below SUB_BUCKET_COUNT have their own bucket, every exponent above 3 has SUB_BUCKET_COUNT buckets */
+	private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray fBuckets;
+	private final AtomicLong fCount;
+	private final AtomicLong fSum;
+	private final AtomicLong fMax;
+
+	public Histogram() {
+		fBuckets = new AtomicLongArray(BUCKET_COUNT);
+		fCount = new AtomicLong();
+		fSum = new AtomicLong();
+		fMax = new AtomicLong();
+	}
+
+	/**
+	 * Record a value. Negative values are recorded as 0
+	 * @param value the value
+	 */
+	public void record(long value) {
+		if(value < 0) {
+			value = 0;
+		}
+		fBuckets.incrementAndGet(bucketIndex(value));
+		fCount.incrementAndGet();
+		fSum.addAndGet(value);
+		long max;
+		while(value > (max = fMax.get())) {
+			if(fMax.compareAndSet(max, value)) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Get the number of recorded values
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return fCount.get();
+	}
+
+	/**
+	 * Get the largest recorded value
+	 * @return the largest value or 0 if no value was recorded
+	 */
+	public long getMax() {
+		return fMax.get();
+	}
+
+	/**
+	 * Get the mean of the recorded values
+	 * @return the mean or 0 if no value was recorded
+	 */
+	public double getMean() {
+		final long count = fCount.get();
+		return count == 0 ? 0 : (double) fSum.get() / count;
+	}
+
+	/**
+	 * Get the value below which <code>percentile</code> percent of the recorded values are
+	 * @param percentile the percentile. 0 - 100
+	 * @return the highest value of the bucket the percentile is in, at most {@link #getMax()}. 0 if no value was recorded
+	 */
+	public long getPercentile(double percentile) {
+		if(percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("percentile must be between 0 and 100");
+		}
+		final long count = fCount.get();
+		if(count == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			seen += fBuckets.get(i);
+			if(seen >= rank) {
+				return Math.min(highestValueOf(i), fMax.get());
+			}
+		}
+		// values were recorded while we counted
+		return fMax.get();
+	}
+
+	/**
+	 * Forget all recorded values
+	 */
+	public void reset() {
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			fBuckets.set(i, 0);
+		}
+		fCount.set(0);
+		fSum.set(0);
+		fMax.set(0);
+	}
+
+	private static int bucketIndex(long value) {
+		if(value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	private static long highestValueOf(int bucketIndex) {
+		if(bucketIndex < SUB_BUCKET_COUNT) {
+			return bucketIndex;
+		}
+		final int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		final long subBucket = bucketIndex % SUB_BUCKET_COUNT;
+		final int shift = exponent - SUB_BUCKET_BITS;
+		// the last bucket ends at Long.MAX_VALUE
+		return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+}
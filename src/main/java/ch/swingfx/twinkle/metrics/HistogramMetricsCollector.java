@@ -0,0 +1,121 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latencies in {@link Histogram}s and counts the dropped frames and notifications.
+ * Publish it with {@link Metrics#enableJmx()} or read it yourself.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class HistogramMetricsCollector implements IMetricsCollector {
+	private final Map<Latency, Histogram> fHistograms;
+	private final AtomicLong fDroppedFrames;
+	private final AtomicLong fDroppedNotifications;
+	private volatile int fQueueDepth;
+	private final AtomicLong fMaxQueueDepth;
+
+	public HistogramMetricsCollector() {
+		// filled once, only read afterwards
+		fHistograms = new EnumMap<Latency, Histogram>(Latency.class);
+		for(Latency latency : Latency.values()) {
+			fHistograms.put(latency, new Histogram());
+		}
+		fDroppedFrames = new AtomicLong();
+		fDroppedNotifications = new AtomicLong();
+		fMaxQueueDepth = new AtomicLong();
+	}
+
+	public void recordLatency(Latency latency, long nanos) {
+		fHistograms.get(latency).record(nanos);
+	}
+
+	public void recordDroppedFrames(int frames) {
+		fDroppedFrames.addAndGet(frames);
+	}
+
+	public void recordQueueDepth(int depth) {
+		fQueueDepth = depth;
+		long max;
+		while(depth > (max = fMaxQueueDepth.get())) {
+			if(fMaxQueueDepth.compareAndSet(max, depth)) {
+				break;
+			}
+		}
+	}
+
+	public void recordDroppedNotification() {
+		fDroppedNotifications.incrementAndGet();
+	}
+
+	/**
+	 * Get the histogram of a latency
+	 * @param latency the latency
+	 * @return the histogram. Values in nanoseconds
+	 */
+	public Histogram getHistogram(Latency latency) {
+		return fHistograms.get(latency);
+	}
+
+	/**
+	 * Get the number of dropped animation frames
+	 * @return the number of dropped frames
+	 */
+	public long getDroppedFrames() {
+		return fDroppedFrames.get();
+	}
+
+	/**
+	 * Get the number of notifications the managers dropped or rejected
+	 * @return the number of dropped notifications
+	 */
+	public long getDroppedNotifications() {
+		return fDroppedNotifications.get();
+	}
+
+	/**
+	 * Get the last recorded queue depth
+	 * @return the number of waiting notifications
+	 */
+	public int getQueueDepth() {
+		return fQueueDepth;
+	}
+
+	/**
+	 * Get the largest recorded queue depth
+	 * @return the largest number of waiting notifications
+	 */
+	public long getMaxQueueDepth() {
+		return fMaxQueueDepth.get();
+	}
+
+	/**
+	 * Forget all measurements
+	 */
+	public void reset() {
+		for(Histogram histogram : fHistograms.values()) {
+			histogram.reset();
+		}
+		fDroppedFrames.set(0);
+		fDroppedNotifications.set(0);
+		fMaxQueueDepth.set(fQueueDepth);
+	}
+}
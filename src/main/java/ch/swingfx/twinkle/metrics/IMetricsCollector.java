@@ -0,0 +1,49 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.metrics;
+
+/**
+ * Receives the measurements of Twinkle. Register it with {@link Metrics#setCollector(IMetricsCollector)}.<br />
+ * The methods are called on the thread that measured, usually the EDT, so they must be
+ * thread safe and should return fast.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface IMetricsCollector {
+	/**
+	 * Record a latency
+	 * @param latency what was measured
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void recordLatency(Latency latency, long nanos);
+
+	/**
+	 * Record frames of the fade animations that were dropped because the EDT was late
+	 * @param frames number of dropped frames
+	 */
+	public void recordDroppedFrames(int frames);
+
+	/**
+	 * Record the number of notifications that wait in the queue of a manager
+	 * @param depth number of waiting notifications
+	 */
+	public void recordQueueDepth(int depth);
+
+	/**
+	 * Record a notification the queue of a manager dropped or rejected because it was full
+	 */
+	public void recordDroppedNotification();
+}
@@ -0,0 +1,34 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.metrics;
+
+/**
+ * The latencies Twinkle measures. All of them are recorded in nanoseconds.
+ * @author Heinrich Spreiter
+ *
+ */
+public enum Latency {
+	/** from the creation of the notification in showNotification() until its window painted the first time. Includes the delay of the manager and of the fade in */
+	SHOW_TO_FIRST_PAINT,
+	/** time spent on the EDT to create, wire and position the window of a notification. Without making it visible */
+	SHOW_EDT,
+	/** time the {@link ch.swingfx.twinkle.window.ICreateNotificationWindow} needs to create a window */
+	WINDOW_CONSTRUCTION,
+	/** time to paint the background, icon and texts of a window */
+	CONTENT_PAINT,
+	/** time to paint the overlay and close button of a window */
+	OVERLAY_PAINT
+}
@@ -0,0 +1,95 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the {@link IMetricsCollector}. No collector is registered by default.<br />
+ * The measuring code reads the collector once and does not even read the clock if it is null,
+ * so without a collector the metrics cost one volatile read per measuring point.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class Metrics {
+	/** name the {@link MetricsMBean} is registered with */
+	public static final String OBJECT_NAME = "ch.swingfx.twinkle:type=Metrics";
+
+	private static volatile IMetricsCollector sCollector;
+
+	private Metrics() {
+		//
+	}
+
+	/**
+	 * Get the registered collector
+	 * @return the collector or null if none is registered
+	 */
+	public static IMetricsCollector getCollector() {
+		return sCollector;
+	}
+
+	/**
+	 * Register a collector. Replaces the registered collector
+	 * @param collector the collector - null to stop measuring
+	 */
+	public static void setCollector(IMetricsCollector collector) {
+		sCollector = collector;
+	}
+
+	/**
+	 * Register a new {@link HistogramMetricsCollector} and publish it in the platform MBean server
+	 * with the name {@link #OBJECT_NAME}. Replaces an earlier published collector
+	 * @return the new collector
+	 * @throws IllegalStateException if the MBean could not be registered
+	 */
+	public static synchronized HistogramMetricsCollector enableJmx() {
+		final HistogramMetricsCollector collector = new HistogramMetricsCollector();
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(new MetricsMBean(collector), name);
+		} catch (JMException e) {
+			throw new IllegalStateException("could not register " + OBJECT_NAME, e);
+		}
+		setCollector(collector);
+		return collector;
+	}
+
+	/**
+	 * Remove the MBean published by {@link #enableJmx()} and stop measuring
+	 */
+	public static synchronized void disableJmx() {
+		setCollector(null);
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("could not unregister " + OBJECT_NAME, e);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanConstructorInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Publishes a {@link HistogramMetricsCollector} in JMX. Every {@link Latency} has the attributes
+ * <code>&lt;Latency&gt;.Count</code>, <code>Mean</code>, <code>P50</code>, <code>P90</code>, <code>P99</code>,
+ * <code>P999</code> and <code>Max</code> in milliseconds, e.g. <code>SHOW_TO_FIRST_PAINT.P99</code>.
+ * The operation <code>reset</code> forgets all measurements.<br />
+ * Registered by {@link Metrics#enableJmx()}.
+ * @author Heinrich Spreiter
+ *
+ */
+public class MetricsMBean implements DynamicMBean {
+	private static final String[] sStatistics = {"Count", "Mean", "P50", "P90", "P99", "P999", "Max"};
+	private static final double[] sPercentiles = {0, 0, 50, 90, 99, 99.9, 0};
+	private static final double NANOS_PER_MILLI = 1000000d;
+
+	private final HistogramMetricsCollector fCollector;
+	private final MBeanInfo fInfo;
+
+	/**
+	 * Create a new MBean
+	 * @param collector the collector we publish
+	 */
+	public MetricsMBean(HistogramMetricsCollector collector) {
+		fCollector = collector;
+		final List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+		for(Latency latency : Latency.values()) {
+			for(int i = 0; i < sStatistics.length; i++) {
+				final boolean count = i == 0;
+				attributes.add(new MBeanAttributeInfo(latency.name() + "." + sStatistics[i], count ? "long" : "double",
+						count ? "number of measurements" : sStatistics[i] + " in milliseconds", true, false, false));
+			}
+		}
+		attributes.add(new MBeanAttributeInfo("DroppedFrames", "long", "number of dropped animation frames", true, false, false));
+		attributes.add(new MBeanAttributeInfo("DroppedNotifications", "long", "number of notifications dropped by full queues", true, false, false));
+		attributes.add(new MBeanAttributeInfo("QueueDepth", "int", "last recorded number of waiting notifications", true, false, false));
+		attributes.add(new MBeanAttributeInfo("MaxQueueDepth", "long", "largest number of waiting notifications", true, false, false));
+		final MBeanOperationInfo reset = new MBeanOperationInfo("reset", "forget all measurements",
+				new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+		fInfo = new MBeanInfo(getClass().getName(), "Twinkle metrics",
+				attributes.toArray(new MBeanAttributeInfo[attributes.size()]), new MBeanConstructorInfo[0],
+				new MBeanOperationInfo[] {reset}, new MBeanNotificationInfo[0]);
+	}
+
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		if("DroppedFrames".equals(attribute)) {
+			return Long.valueOf(fCollector.getDroppedFrames());
+		}
+		if("DroppedNotifications".equals(attribute)) {
+			return Long.valueOf(fCollector.getDroppedNotifications());
+		}
+		if("QueueDepth".equals(attribute)) {
+			return Integer.valueOf(fCollector.getQueueDepth());
+		}
+		if("MaxQueueDepth".equals(attribute)) {
+			return Long.valueOf(fCollector.getMaxQueueDepth());
+		}
+		final int separator = attribute.lastIndexOf('.');
+		if(separator > 0) {
+			final Latency latency;
+			try {
+				latency = Latency.valueOf(attribute.substring(0, separator));
+			} catch (IllegalArgumentException e) {
+				throw new AttributeNotFoundException(attribute);
+			}
+			final Histogram histogram = fCollector.getHistogram(latency);
+			final String statistic = attribute.substring(separator + 1);
+			for(int i = 0; i < sStatistics.length; i++) {
+				if(sStatistics[i].equals(statistic)) {
+					switch(i) {
+						case 0:
+							return Long.valueOf(histogram.getCount());
+						case 1:
+							return Double.valueOf(histogram.getMean() / NANOS_PER_MILLI);
+						case 6:
+							return Double.valueOf(histogram.getMax() / NANOS_PER_MILLI);
+						default:
+							return Double.valueOf(histogram.getPercentile(sPercentiles[i]) / NANOS_PER_MILLI);
+					}
+				}
+			}
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+
+	public AttributeList getAttributes(String[] attributes) {
+		final AttributeList list = new AttributeList();
+		for(String attribute : attributes) {
+			try {
+				list.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException e) {
+				// the list only contains the attributes we have
+			}
+		}
+		return list;
+	}
+
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException(attribute.getName() + " is read only");
+	}
+
+	public AttributeList setAttributes(AttributeList attributes) {
+		// all attributes are read only
+		return new AttributeList();
+	}
+
+	public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+		if("reset".equals(actionName)) {
+			fCollector.reset();
+			return null;
+		}
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	public MBeanInfo getMBeanInfo() {
+		return fInfo;
+	}
+}
@@ -0,0 +1,253 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.reactive;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.manager.EdtSequentialNotificationManager;
+import ch.swingfx.twinkle.manager.INotificationManager;
+import ch.swingfx.twinkle.manager.INotificationQueueListener;
+import ch.swingfx.twinkle.manager.NotificationQueue;
+import ch.swingfx.twinkle.manager.SequentialNotificationManager;
+import ch.swingfx.twinkle.manager.StackingNotificationManager;
+
+/**
+ * Reactive Streams {@link Subscriber} that shows the notifications of a publisher with an {@link INotificationManager}.<br />
+ * The subscriber only requests as many notifications as the queue of the manager has room for, and
+ * never more than <code>prefetch</code>. The queue tells us when the manager showed a notification
+ * and made room, then we request more. A fast publisher has to slow down or buffer on its side
+ * instead of growing the queue. Example
+ * <code>
+ *     <pre>
+ *         final StackingNotificationManager manager = new StackingNotificationManager();
+ *         publisher.subscribe(new NotificationSubscriber(manager, manager.getQueue()));
+ *     </pre>
+ * </code>
+ * The notifications are shown with the manager of the subscriber, not with the manager of the notification.
+ * The manager must add the notifications to the queue right away, like {@link StackingNotificationManager} and
+ * {@link SequentialNotificationManager}, or hand them over through an inbox it reports, like
+ * {@link EdtSequentialNotificationManager}. Otherwise the queue does not show the notifications in flight and
+ * the subscriber requests too many.
+ * Java 9 <code>java.util.concurrent.Flow</code> publishers can be connected with <code>org.reactivestreams.FlowAdapters</code>.<br />
+ * Call {@link #cancel()} to stop receiving notifications.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class NotificationSubscriber implements Subscriber<Notification> {
+	/** default maximum number of requested notifications that are not shown yet */
+	public static final int DEFAULT_PREFETCH = 16;
+
+	private final INotificationManager fManager;
+	private final NotificationQueue fQueue;
+	private final int fPrefetch;
+	private final INotificationQueueListener fQueueListener;
+	/** our lock for synchronization */
+	private final Lock fLock;
+	/** guarded by lock */
+	private Subscription fSubscription;
+	/** number of requested notifications we did not receive yet. guarded by lock */
+	private long fOutstanding;
+	/** true after cancel(), onComplete() or onError(). guarded by lock */
+	private boolean fDone;
+
+	/**
+	 * Create a subscriber with {@link #DEFAULT_PREFETCH}
+	 * @param manager the manager that shows the notifications
+	 * @param queue the queue of the manager
+	 */
+	public NotificationSubscriber(INotificationManager manager, NotificationQueue queue) {
+		this(manager, queue, DEFAULT_PREFETCH);
+	}
+
+	/**
+	 * Create a subscriber
+	 * @param manager the manager that shows the notifications
+	 * @param queue the queue of the manager. Its depth and capacity decide how many notifications we request
+	 * @param prefetch maximum number of notifications that are requested or waiting in the queue. Must be &gt; 0
+	 */
+	public NotificationSubscriber(INotificationManager manager, NotificationQueue queue, int prefetch) {
+		if(manager == null || queue == null) {
+			throw new IllegalArgumentException("manager and queue can not be null");
+		}
+		if(prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch must be > 0");
+		}
+		fManager = manager;
+		fQueue = queue;
+		fPrefetch = prefetch;
+		fLock = new ReentrantLock();
+		fQueueListener = new INotificationQueueListener() {
+			public void queueChanged(NotificationQueue queue) {
+				requestMore();
+			}
+		};
+	}
+
+	public void onSubscribe(Subscription subscription) {
+		if(subscription == null) {
+			throw new NullPointerException("subscription can not be null");
+		}
+		try {
+			fLock.lock();
+			if(fSubscription != null || fDone) {
+				// only one subscription at a time (rule 2.5)
+				subscription.cancel();
+				return;
+			}
+			fSubscription = subscription;
+		} finally {
+			fLock.unlock();
+		}
+		fQueue.addQueueListener(fQueueListener);
+		requestMore();
+	}
+
+	public void onNext(Notification notification) {
+		if(notification == null) {
+			throw new NullPointerException("notification can not be null");
+		}
+		if(isDone()) {
+			return;
+		}
+		fManager.showNotification(notification);
+		// outstanding until the manager has it. Counted twice for a moment instead of not at all
+		try {
+			fLock.lock();
+			if(fOutstanding > 0) {
+				fOutstanding--;
+			}
+		} finally {
+			fLock.unlock();
+		}
+		// the queue may not change, e.g. if the notification replaced a waiting one
+		requestMore();
+	}
+
+	public void onError(Throwable throwable) {
+		if(throwable == null) {
+			throw new NullPointerException("throwable can not be null");
+		}
+		finish();
+	}
+
+	public void onComplete() {
+		finish();
+	}
+
+	/**
+	 * Stop receiving notifications. The notifications that are already in the queue are still shown
+	 */
+	public void cancel() {
+		final Subscription subscription;
+		try {
+			fLock.lock();
+			subscription = fSubscription;
+		} finally {
+			fLock.unlock();
+		}
+		if(finish() && subscription != null) {
+			subscription.cancel();
+		}
+	}
+
+	/**
+	 * Check if the subscriber stopped receiving notifications
+	 * @return true after cancel(), onComplete() or onError()
+	 */
+	public boolean isDone() {
+		try {
+			fLock.lock();
+			return fDone;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the number of requested notifications that did not arrive yet
+	 * @return the number of outstanding notifications
+	 */
+	public long getOutstanding() {
+		try {
+			fLock.lock();
+			return fOutstanding;
+		} finally {
+			fLock.unlock();
+		}
+	}
+
+	/**
+	 * Mark the subscriber as done
+	 * @return true if it was not done before
+	 */
+	private boolean finish() {
+		try {
+			fLock.lock();
+			if(fDone) {
+				return false;
+			}
+			fDone = true;
+			fSubscription = null;
+		} finally {
+			fLock.unlock();
+		}
+		fQueue.removeQueueListener(fQueueListener);
+		return true;
+	}
+
+	/**
+	 * Get the number of notifications the manager has not shown yet
+	 * @return the notifications in the queue and in the inbox of the manager
+	 */
+	private int getWaitingCount() {
+		// the inbox first. A notification that moves to the queue meanwhile is counted twice instead of not at all
+		final int inboxCount = fManager instanceof EdtSequentialNotificationManager ? ((EdtSequentialNotificationManager) fManager).getInboxCount() : 0;
+		return inboxCount + fQueue.getDepth();
+	}
+
+	/**
+	 * Request as many notifications as the queue has room for
+	 */
+	private void requestMore() {
+		// read before our lock. The queue calls us with its own lock released
+		final int depth = getWaitingCount();
+		final int limit = Math.min(fPrefetch, fQueue.getCapacity());
+		final Subscription subscription;
+		final long demand;
+		try {
+			fLock.lock();
+			if(fDone || fSubscription == null) {
+				return;
+			}
+			demand = limit - depth - fOutstanding;
+			if(demand <= 0) {
+				return;
+			}
+			fOutstanding += demand;
+			subscription = fSubscription;
+		} finally {
+			fLock.unlock();
+		}
+		// not under our lock. The publisher may call onNext() right away
+		subscription.request(demand);
+	}
+}
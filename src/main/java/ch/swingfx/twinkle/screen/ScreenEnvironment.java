@@ -0,0 +1,371 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.screen;
+
+import java.awt.Dimension;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Insets;
+import java.awt.MouseInfo;
+import java.awt.Point;
+import java.awt.PointerInfo;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import ch.swingfx.awt.GraphicsEnvironmentUtil;
+import ch.swingfx.window.translucentandshaped.ITranslucentAndShapedWindowApi;
+import ch.swingfx.window.translucentandshaped.TranslucentAndShapedWindowApiFactory;
+
+/**
+ * The screen geometry and window capabilities the notifications need.<br />
+ * Querying the screen devices, the toolkit, the translucency api and the X11 work area is slow,
+ * so it is done once, the first time a notification is shown. Call {@link #warmUp()} at startup
+ * to do it on a background thread instead.<br />
+ * The geometry of every screen is cached. The cache is invalidated when the display configuration changes,
+ * for example if a monitor is plugged in. If the runtime doesn't tell us about display changes, a cached
+ * geometry is read again after {@link #GEOMETRY_TIME_TO_LIVE} milliseconds. Call {@link #invalidate()}
+ * if you know the screens changed.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class ScreenEnvironment {
+	/** time in milliseconds a cached geometry is used if we don't get display change events */
+	public static final long GEOMETRY_TIME_TO_LIVE = 5000;
+
+	private static volatile ScreenEnvironment sInstance;
+	private static FutureTask<ScreenEnvironment> sWarmUp;
+
+	private final WindowTranslucency fWindowTranslucency;
+	private final Toolkit fToolkit;
+	private final ConcurrentMap<GraphicsDevice, ScreenGeometry> fGeometries;
+	/** null if it has to be read again */
+	private volatile GraphicsDevice fMainScreen;
+	/** the runtime only keeps a weak reference to it */
+	private Object fDisplayChangedListener;
+	/** true if we get display change events */
+	private boolean fDisplayChangeEvents;
+
+	private ScreenEnvironment() {
+		fToolkit = Toolkit.getDefaultToolkit();
+		fWindowTranslucency = WindowTranslucency.getDefault();
+		fGeometries = new ConcurrentHashMap<GraphicsDevice, ScreenGeometry>();
+		fDisplayChangeEvents = addDisplayChangedListener();
+		// read the main screen now. That's what most notifications need
+		getMainScreenGeometry();
+	}
+
+	/**
+	 * The public api has no display change events, but the Sun/Oracle runtimes
+	 * let us register a sun.awt.DisplayChangedListener on the graphics environment.
+	 * Newer runtimes don't allow access to it. Then the geometries expire instead
+	 * @return true if the listener is registered
+	 */
+	private boolean addDisplayChangedListener() {
+		try {
+			final GraphicsEnvironment graphicsEnvironment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+			final Class<?> listenerClass = Class.forName("sun.awt.DisplayChangedListener");
+			final Method addListener = graphicsEnvironment.getClass().getMethod("addDisplayChangedListener", listenerClass);
+			final Object listener = Proxy.newProxyInstance(listenerClass.getClassLoader(), new Class<?>[] { listenerClass }, new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					final String name = method.getName();
+					if("equals".equals(name)) {
+						return Boolean.valueOf(proxy == args[0]);
+					}
+					if("hashCode".equals(name)) {
+						return Integer.valueOf(System.identityHashCode(proxy));
+					}
+					if("toString".equals(name)) {
+						return "ScreenEnvironment display change listener";
+					}
+					if("displayChanged".equals(name)) {
+						invalidate();
+					}
+					return null;
+				}
+			});
+			addListener.invoke(graphicsEnvironment, listener);
+			fDisplayChangedListener = listener;
+			return true;
+		} catch (Exception e) {
+			return false;
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	private Insets getScreenInsets(GraphicsDevice device, GraphicsConfiguration graphicsConfiguration, Dimension screenSize) {
+		if(device != getMainScreen()) {
+			return fToolkit.getScreenInsets(graphicsConfiguration);
+		}
+		Insets insets;
+		if(GraphicsEnvironmentUtil.isX11GraphicsEnvironment) {
+			final Rectangle x11RootNetWorkarea = GraphicsEnvironmentUtil.getX11RootNetWorkarea();
+			if(x11RootNetWorkarea != null) {
+				// use x11 workaround
+				insets = new Insets(x11RootNetWorkarea.x, x11RootNetWorkarea.y, screenSize.height - x11RootNetWorkarea.height, screenSize.width - x11RootNetWorkarea.width);
+			} else {
+				// fall back to default
+				insets = fToolkit.getScreenInsets(graphicsConfiguration);
+			}
+		} else if(GraphicsEnvironmentUtil.isCGraphicsEnvironment) {
+			insets = fToolkit.getScreenInsets(graphicsConfiguration);
+			// only fall back if we can't get the insets with the toolkit
+			if(insets == null || insets.top == 0 /* OS X always has a menu bar and therefore top must be > 0 */) {
+				insets = GraphicsEnvironmentUtil.OSX_MENU_BAR_SCREEN_INSETS;
+			}
+		} else {
+			insets = fToolkit.getScreenInsets(graphicsConfiguration);
+		}
+		return insets;
+	}
+
+	/**
+	 * Get the screen environment. Discovers it on the calling thread if nobody did it before
+	 * @return the screen environment
+	 */
+	public static ScreenEnvironment get() {
+		ScreenEnvironment instance = sInstance;
+		if(instance == null) {
+			final FutureTask<ScreenEnvironment> warmUp;
+			synchronized (ScreenEnvironment.class) {
+				if(sWarmUp == null) {
+					sWarmUp = newWarmUp();
+				}
+				warmUp = sWarmUp;
+			}
+			// runs the discovery here unless the warm up thread already runs it. Then we wait for it
+			warmUp.run();
+			instance = getResult(warmUp);
+		}
+		return instance;
+	}
+
+	/**
+	 * Start the discovery of the screen environment on a background thread. Does nothing if it already started
+	 * @return the future screen environment
+	 */
+	public static Future<ScreenEnvironment> warmUp() {
+		final FutureTask<ScreenEnvironment> warmUp;
+		synchronized (ScreenEnvironment.class) {
+			if(sWarmUp != null) {
+				return sWarmUp;
+			}
+			warmUp = newWarmUp();
+			sWarmUp = warmUp;
+		}
+		final Thread thread = new Thread(warmUp, "twinkle-screen-warm-up");
+		thread.setDaemon(true);
+		thread.start();
+		return warmUp;
+	}
+
+	private static FutureTask<ScreenEnvironment> newWarmUp() {
+		return new FutureTask<ScreenEnvironment>(new Callable<ScreenEnvironment>() {
+			public ScreenEnvironment call() {
+				final ScreenEnvironment instance = new ScreenEnvironment();
+				sInstance = instance;
+				return instance;
+			}
+		});
+	}
+
+	private static ScreenEnvironment getResult(FutureTask<ScreenEnvironment> warmUp) {
+		boolean interrupted = false;
+		try {
+			while(true) {
+				try {
+					return warmUp.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					synchronized (ScreenEnvironment.class) {
+						// try again next time
+						if(sWarmUp == warmUp) {
+							sWarmUp = null;
+						}
+					}
+					final Throwable cause = e.getCause();
+					if(cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if(cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw new RuntimeException(cause);
+				}
+			}
+		} finally {
+			if(interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Get the api for translucent and shaped windows of the core library.
+	 * Use {@link #getWindowTranslucency()} for opacity and translucency, it is faster
+	 * @return the api
+	 */
+	public ITranslucentAndShapedWindowApi getWindowApi() {
+		return TranslucentAndShapedWindowApiFactory.getApi();
+	}
+
+	/**
+	 * Get the opacity and translucency api
+	 * @return the {@link WindowTranslucency}
+	 */
+	public WindowTranslucency getWindowTranslucency() {
+		return fWindowTranslucency;
+	}
+
+	/**
+	 * Forget all cached geometries. Called when the display configuration changes
+	 */
+	public void invalidate() {
+		fMainScreen = null;
+		fGeometries.clear();
+		fWindowTranslucency.clearCache();
+	}
+
+	/**
+	 * Get the geometry of a screen
+	 * @param device the screen
+	 * @return the cached geometry or the current geometry if the cached one is out of date
+	 */
+	public ScreenGeometry getScreenGeometry(GraphicsDevice device) {
+		ScreenGeometry geometry = fGeometries.get(device);
+		if(geometry == null || (!fDisplayChangeEvents && System.nanoTime() - geometry.getReadTime() > GEOMETRY_TIME_TO_LIVE * 1000000L)) {
+			final GraphicsConfiguration graphicsConfiguration = device.getDefaultConfiguration();
+			final Rectangle bounds = graphicsConfiguration.getBounds();
+			geometry = new ScreenGeometry(device, graphicsConfiguration, bounds, getScreenInsets(device, graphicsConfiguration, bounds.getSize()));
+			fGeometries.put(device, geometry);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Get the geometry of the main screen
+	 * @return the geometry of the main screen
+	 */
+	public ScreenGeometry getMainScreenGeometry() {
+		return getScreenGeometry(getMainScreen());
+	}
+
+	/**
+	 * Get all screens
+	 * @return the screens
+	 */
+	public GraphicsDevice[] getScreens() {
+		return GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices();
+	}
+
+	/**
+	 * Check if a screen is still connected
+	 * @param device the screen
+	 * @return true if the screen is connected
+	 */
+	public boolean isAvailable(GraphicsDevice device) {
+		for(GraphicsDevice screen : getScreens()) {
+			if(screen == device) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the screen a notification is shown on
+	 * @param requestedScreen the screen of the notification - can be null
+	 * @return the requested screen or the main screen if no screen is requested or if it was unplugged
+	 */
+	public GraphicsDevice resolveScreen(GraphicsDevice requestedScreen) {
+		return requestedScreen != null && isAvailable(requestedScreen) ? requestedScreen : getMainScreen();
+	}
+
+	/**
+	 * Get the screen that contains a point
+	 * @param point point in the virtual coordinate system
+	 * @return the screen or the main screen if no screen contains the point
+	 */
+	public GraphicsDevice getScreenAt(Point point) {
+		for(GraphicsDevice screen : getScreens()) {
+			if(getScreenGeometry(screen).getBounds().contains(point)) {
+				return screen;
+			}
+		}
+		return getMainScreen();
+	}
+
+	/**
+	 * Get the screen the mouse pointer is on
+	 * @return the screen or the main screen if there is no pointer
+	 */
+	public GraphicsDevice getScreenUnderPointer() {
+		final PointerInfo pointerInfo = MouseInfo.getPointerInfo();
+		if(pointerInfo == null) {
+			return getMainScreen();
+		}
+		return pointerInfo.getDevice();
+	}
+
+	/**
+	 * Get the default screen device
+	 * @return the main screen
+	 */
+	public GraphicsDevice getMainScreen() {
+		GraphicsDevice mainScreen = fMainScreen;
+		if(mainScreen == null) {
+			mainScreen = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+			fMainScreen = mainScreen;
+		}
+		return mainScreen;
+	}
+
+	/**
+	 * Get the default {@link GraphicsConfiguration} of the main screen
+	 * @return the {@link GraphicsConfiguration}
+	 */
+	public GraphicsConfiguration getMainScreenGraphicsConfiguration() {
+		return getMainScreenGeometry().getGraphicsConfiguration();
+	}
+
+	/**
+	 * Get the size of the main screen including all the menu/task bars
+	 * @return the size
+	 */
+	public Dimension getMainScreenSize() {
+		return getMainScreenGeometry().getSize();
+	}
+
+	/**
+	 * Get the insets of the menu/task bars of the main screen
+	 * @return the insets
+	 */
+	public Insets getMainScreenInsets() {
+		return getMainScreenGeometry().getInsets();
+	}
+}
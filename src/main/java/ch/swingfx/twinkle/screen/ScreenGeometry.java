@@ -0,0 +1,104 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.screen;
+
+import java.awt.Dimension;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Insets;
+import java.awt.Rectangle;
+
+/**
+ * Immutable geometry of one screen at the time it was read. See {@link ScreenEnvironment#getScreenGeometry(GraphicsDevice)}
+ * @author Heinrich Spreiter
+ *
+ */
+public final class ScreenGeometry {
+	private final GraphicsDevice fDevice;
+	private final GraphicsConfiguration fGraphicsConfiguration;
+	private final Rectangle fBounds;
+	private final Insets fInsets;
+	/** time the geometry was read. See System.nanoTime() */
+	private final long fReadTime;
+
+	ScreenGeometry(GraphicsDevice device, GraphicsConfiguration graphicsConfiguration, Rectangle bounds, Insets insets) {
+		fDevice = device;
+		fGraphicsConfiguration = graphicsConfiguration;
+		fBounds = new Rectangle(bounds);
+		fInsets = (Insets) insets.clone();
+		fReadTime = System.nanoTime();
+	}
+
+	/**
+	 * Get the screen
+	 * @return the screen device
+	 */
+	public GraphicsDevice getDevice() {
+		return fDevice;
+	}
+
+	/**
+	 * Get the default {@link GraphicsConfiguration} of the screen
+	 * @return the {@link GraphicsConfiguration}
+	 */
+	public GraphicsConfiguration getGraphicsConfiguration() {
+		return fGraphicsConfiguration;
+	}
+
+	/**
+	 * Get the bounds of the screen in the virtual coordinate system including all the menu/task bars
+	 * @return a copy of the bounds
+	 */
+	public Rectangle getBounds() {
+		return new Rectangle(fBounds);
+	}
+
+	/**
+	 * Get the x coordinate of the screen in the virtual coordinate system
+	 * @return the x coordinate
+	 */
+	public int getX() {
+		return fBounds.x;
+	}
+
+	/**
+	 * Get the y coordinate of the screen in the virtual coordinate system
+	 * @return the y coordinate
+	 */
+	public int getY() {
+		return fBounds.y;
+	}
+
+	/**
+	 * Get the size of the screen including all the menu/task bars
+	 * @return the size
+	 */
+	public Dimension getSize() {
+		return fBounds.getSize();
+	}
+
+	/**
+	 * Get the insets of the menu/task bars
+	 * @return a copy of the insets
+	 */
+	public Insets getInsets() {
+		return (Insets) fInsets.clone();
+	}
+
+	long getReadTime() {
+		return fReadTime;
+	}
+}
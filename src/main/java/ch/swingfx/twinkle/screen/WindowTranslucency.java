@@ -0,0 +1,190 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.screen;
+
+import java.awt.Color;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Window;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ch.swingfx.window.translucentandshaped.ITranslucentAndShapedWindowApi;
+import ch.swingfx.window.translucentandshaped.TranslucentAndShapedWindowApiFactory;
+import ch.swingfx.window.translucentandshaped.Translucency;
+
+/**
+ * Opacity and translucency of windows. The default implementation calls the Java 7 api of
+ * {@link Window}, {@link GraphicsDevice} and {@link GraphicsConfiguration} directly.
+ * Set the system property {@value #USE_CORE_API_PROPERTY} to <code>true</code> to use the
+ * {@link ITranslucentAndShapedWindowApi} of the core library instead.<br />
+ * The answers of isTranslucencySupported() and isTranslucencyCapable() don't change while the
+ * display configuration stays the same, so they are cached until {@link #clearCache()}.
+ * {@link ScreenEnvironment} clears the cache if the display configuration changes.<br />
+ * The set methods must be called on the EDT. The rest is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public abstract class WindowTranslucency {
+	/** system property that selects the core library api */
+	public static final String USE_CORE_API_PROPERTY = "ch.swingfx.twinkle.useCoreWindowApi";
+
+	private final Map<Translucency, ConcurrentMap<GraphicsDevice, Boolean>> fSupported;
+	private final ConcurrentMap<GraphicsConfiguration, Boolean> fCapable;
+
+	protected WindowTranslucency() {
+		// filled once, only read afterwards
+		fSupported = new EnumMap<Translucency, ConcurrentMap<GraphicsDevice, Boolean>>(Translucency.class);
+		for(Translucency translucency : Translucency.values()) {
+			fSupported.put(translucency, new ConcurrentHashMap<GraphicsDevice, Boolean>());
+		}
+		fCapable = new ConcurrentHashMap<GraphicsConfiguration, Boolean>();
+	}
+
+	/**
+	 * Get the implementation for this runtime
+	 * @return the shared implementation
+	 */
+	public static WindowTranslucency getDefault() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * Check if a screen supports a kind of translucency
+	 * @param translucency the kind of translucency
+	 * @param device the screen
+	 * @return true if it is supported
+	 */
+	public boolean isTranslucencySupported(Translucency translucency, GraphicsDevice device) {
+		final ConcurrentMap<GraphicsDevice, Boolean> supported = fSupported.get(translucency);
+		Boolean result = supported.get(device);
+		if(result == null) {
+			result = Boolean.valueOf(checkTranslucencySupported(translucency, device));
+			supported.put(device, result);
+		}
+		return result.booleanValue();
+	}
+
+	/**
+	 * Check if windows with a {@link GraphicsConfiguration} can be per pixel translucent
+	 * @param graphicsConfiguration the {@link GraphicsConfiguration}
+	 * @return true if they can
+	 */
+	public boolean isTranslucencyCapable(GraphicsConfiguration graphicsConfiguration) {
+		Boolean result = fCapable.get(graphicsConfiguration);
+		if(result == null) {
+			result = Boolean.valueOf(checkTranslucencyCapable(graphicsConfiguration));
+			fCapable.put(graphicsConfiguration, result);
+		}
+		return result.booleanValue();
+	}
+
+	/**
+	 * Forget the cached answers
+	 */
+	public void clearCache() {
+		for(ConcurrentMap<GraphicsDevice, Boolean> supported : fSupported.values()) {
+			supported.clear();
+		}
+		fCapable.clear();
+	}
+
+	/**
+	 * Set the opacity of a window. Check isTranslucencySupported() for {@link Translucency}.TRANSLUCENT first
+	 * @param window the window
+	 * @param opacity the opacity. 0 - 1
+	 */
+	public abstract void setWindowOpacity(Window window, float opacity);
+
+	/**
+	 * Make a window opaque or per pixel translucent. Check isTranslucencySupported() for
+	 * {@link Translucency}.PERPIXEL_TRANSLUCENT and isTranslucencyCapable() first
+	 * @param window the window
+	 * @param opaque false for per pixel translucency
+	 */
+	public abstract void setWindowOpaque(Window window, boolean opaque);
+
+	protected abstract boolean checkTranslucencySupported(Translucency translucency, GraphicsDevice device);
+
+	protected abstract boolean checkTranslucencyCapable(GraphicsConfiguration graphicsConfiguration);
+
+	/**
+	 * Calls the Java 7 api
+	 */
+	private static final class DirectWindowTranslucency extends WindowTranslucency {
+		private static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+		public void setWindowOpacity(Window window, float opacity) {
+			window.setOpacity(opacity);
+		}
+
+		public void setWindowOpaque(Window window, boolean opaque) {
+			// like com.sun.awt.AWTUtilities.setWindowOpaque(). The alpha of the background decides
+			final Color background = window.getBackground() != null ? window.getBackground() : TRANSPARENT;
+			window.setBackground(new Color(background.getRed(), background.getGreen(), background.getBlue(), opaque ? 255 : 0));
+		}
+
+		protected boolean checkTranslucencySupported(Translucency translucency, GraphicsDevice device) {
+			switch(translucency) {
+				case PERPIXEL_TRANSPARENT:
+					return device.isWindowTranslucencySupported(GraphicsDevice.WindowTranslucency.PERPIXEL_TRANSPARENT);
+				case TRANSLUCENT:
+					return device.isWindowTranslucencySupported(GraphicsDevice.WindowTranslucency.TRANSLUCENT);
+				case PERPIXEL_TRANSLUCENT:
+					return device.isWindowTranslucencySupported(GraphicsDevice.WindowTranslucency.PERPIXEL_TRANSLUCENT);
+				default:
+					return false;
+			}
+		}
+
+		protected boolean checkTranslucencyCapable(GraphicsConfiguration graphicsConfiguration) {
+			return graphicsConfiguration.isTranslucencyCapable();
+		}
+	}
+
+	/**
+	 * Calls the api of the core library
+	 */
+	private static final class CoreWindowTranslucency extends WindowTranslucency {
+		private final ITranslucentAndShapedWindowApi fApi = TranslucentAndShapedWindowApiFactory.getApi();
+
+		public void setWindowOpacity(Window window, float opacity) {
+			fApi.setWindowOpacity(window, opacity);
+		}
+
+		public void setWindowOpaque(Window window, boolean opaque) {
+			fApi.setWindowOpaque(window, opaque);
+		}
+
+		protected boolean checkTranslucencySupported(Translucency translucency, GraphicsDevice device) {
+			return fApi.isTranslucencySupported(translucency, device);
+		}
+
+		protected boolean checkTranslucencyCapable(GraphicsConfiguration graphicsConfiguration) {
+			return fApi.isTranslucencyCapable(graphicsConfiguration);
+		}
+	}
+
+	/**
+	 * Holder of the shared implementation. Selected the first time it is used
+	 */
+	private static final class Holder {
+		private static final WindowTranslucency INSTANCE = Boolean.getBoolean(USE_CORE_API_PROPERTY)
+				? new CoreWindowTranslucency() : new DirectWindowTranslucency();
+	}
+}
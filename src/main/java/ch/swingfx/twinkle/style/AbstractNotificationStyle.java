@@ -21,8 +21,6 @@ import java.awt.Insets;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.swing.JLabel;
-
 import ch.swingfx.twinkle.style.background.ColorBackground;
 import ch.swingfx.twinkle.style.background.IBackground;
 import ch.swingfx.twinkle.style.closebutton.ICloseButton;
@@ -53,14 +51,16 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	private int fWindowCornerRadius;
 	private ICreateNotificationWindow fWindowCreator;
 	private Map<String, Object> fCustomParams;
+	/** set by freeze(). null while the style can be changed */
+	private volatile CompiledNotificationStyle fCompiled;
 
 	public AbstractNotificationStyle() {
-		final Font font = new JLabel().getFont();
 		fWindowCornerRadius = 0;
 		fCustomParams = new HashMap<String, Object>();
 		fBackground = new ColorBackground(Color.GRAY);
-		fTitleFont = font.deriveFont(13f).deriveFont(Font.BOLD);
-		fMessageFont = font.deriveFont(12f).deriveFont(Font.PLAIN);
+		// shared fonts. Creating a style should not create Swing components
+		fTitleFont = ThemeAssets.getDefaultFont(13f, Font.BOLD);
+		fMessageFont = ThemeAssets.getDefaultFont(12f, Font.PLAIN);
 		fWindowInsets = new Insets(10, 10, 10, 10);
 		fOverlay = new NullOverlay();
 		fCloseButton = new NullCloseButton();
@@ -73,6 +73,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withWidth(int width) {
+		checkNotFrozen();
 		fWindowWidth = width;
 		return this;
 	}
@@ -83,6 +84,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withWindowCornerRadius(int cornerRadius) {
+		checkNotFrozen();
 		if(cornerRadius < 0) {
 			throw new RuntimeException("Window corner radius must be >= 0");
 		}
@@ -96,6 +98,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withWindowInsets(Insets windowInsets) {
+		checkNotFrozen();
 		this.fWindowInsets = windowInsets;
 		return this;
 	}
@@ -107,6 +110,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withTitleFont(Font titleFont) {
+		checkNotFrozen();
 		this.fTitleFont = titleFont;
 		return this;
 	}
@@ -117,6 +121,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withMessageFont(Font messageFont) {
+		checkNotFrozen();
 		this.fMessageFont = messageFont;
 		return this;
 	}
@@ -127,6 +132,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withAlpha(float alpha) {
+		checkNotFrozen();
 		this.fAlpha = alpha;
 		getBackground().setAlpha(alpha);
 		return this;
@@ -138,6 +144,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withBackground(IBackground background) {
+		checkNotFrozen();
 		this.fBackground = background;
 		background.setAlpha(getAlpha());
 		return this;
@@ -149,6 +156,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withTitleFontColor(Color color) {
+		checkNotFrozen();
 		this.fTitleFontColor = color;
 		return this;
 	}
@@ -159,6 +167,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withMessageFontColor(Color color) {
+		checkNotFrozen();
 		this.fMessageFontColor = color;
 		return this;
 	}
@@ -169,6 +178,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withOverlay(IOverlay overlay) {
+		checkNotFrozen();
 		this.fOverlay = overlay;
 		return this;
 	}
@@ -179,6 +189,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withCloseButton(ICloseButton closeButton) {
+		checkNotFrozen();
 		this.fCloseButton = closeButton;
 		return this;
 	}
@@ -189,6 +200,7 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withNotificationWindowCreator(ICreateNotificationWindow windowCreator) {
+		checkNotFrozen();
 		this.fWindowCreator = windowCreator;
 		return this;
 	}
@@ -199,10 +211,38 @@ public abstract class AbstractNotificationStyle implements INotificationStyle {
 	 * @return this {@link AbstractNotificationStyle}
 	 */
 	public AbstractNotificationStyle withCustomParams(Map<String, Object> customParams) {
+		checkNotFrozen();
 		fCustomParams = customParams;
 		return this;
 	}
 
+	/**
+	 * Freeze this style and compile it. Afterwards the with methods throw an {@link IllegalStateException},
+	 * so the returned {@link CompiledNotificationStyle} stays a correct snapshot of this style.<br />
+	 * Calling this method again returns the same {@link CompiledNotificationStyle}.
+	 * @return the immutable snapshot of this style
+	 */
+	public synchronized CompiledNotificationStyle freeze() {
+		if(fCompiled == null) {
+			fCompiled = CompiledNotificationStyle.compile(this);
+		}
+		return fCompiled;
+	}
+
+	/**
+	 * Check if this style is frozen
+	 * @return true if freeze() was called
+	 */
+	public boolean isFrozen() {
+		return fCompiled != null;
+	}
+
+	private void checkNotFrozen() {
+		if(fCompiled != null) {
+			throw new IllegalStateException("The style is frozen");
+		}
+	}
+
 	public int getWidth() {
 		return fWindowWidth;
 	}
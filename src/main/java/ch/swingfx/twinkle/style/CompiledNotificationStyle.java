@@ -0,0 +1,200 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.style;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Insets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.swingfx.twinkle.style.background.IBackground;
+import ch.swingfx.twinkle.style.closebutton.ICloseButton;
+import ch.swingfx.twinkle.style.overlay.IOverlay;
+import ch.swingfx.twinkle.window.ICreateNotificationWindow;
+
+/**
+ * Immutable snapshot of an {@link INotificationStyle}. All values are read once when the
+ * snapshot is compiled, so it can be shared between threads and its getters cost nothing.<br />
+ * Two snapshots are equal if they have the same values and share the same background,
+ * overlay, close button and window creator, so a snapshot can be used as a cache key.<br />
+ * The background, overlay and close button are shared with the compiled style. Don't change them.
+ * Use {@link AbstractNotificationStyle#freeze()} to make sure the compiled style can't change them either.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class CompiledNotificationStyle implements INotificationStyle {
+	private final int fWidth;
+	private final int fWindowCornerRadius;
+	private final Color fTitleFontColor;
+	private final Font fTitleFont;
+	private final Color fMessageFontColor;
+	private final Font fMessageFont;
+	private final Insets fWindowInsets;
+	private final float fAlpha;
+	private final IBackground fBackground;
+	private final IOverlay fOverlay;
+	private final ICloseButton fCloseButton;
+	private final ICreateNotificationWindow fWindowCreator;
+	private final Map<String, Object> fCustomParams;
+	private final int fHashCode;
+
+	private CompiledNotificationStyle(INotificationStyle style) {
+		fWidth = style.getWidth();
+		fWindowCornerRadius = style.getWindowCornerRadius();
+		fTitleFontColor = style.getTitleFontColor();
+		fTitleFont = style.getTitleFont();
+		fMessageFontColor = style.getMessageFontColor();
+		fMessageFont = style.getMessageFont();
+		fWindowInsets = (Insets) style.getWindowInsets().clone();
+		fAlpha = style.getAlpha();
+		fBackground = style.getBackground();
+		fOverlay = style.getOverlay();
+		fCloseButton = style.getCloseButton();
+		fWindowCreator = style.getNotificationWindowCreator();
+		fCustomParams = Collections.unmodifiableMap(new HashMap<String, Object>(style.getCustomParams()));
+		fHashCode = computeHashCode();
+	}
+
+	/**
+	 * Compile a style. The style itself is not changed
+	 * @param style the style to compile - can not be null
+	 * @return the compiled style or <code>style</code> if it is already compiled
+	 */
+	public static CompiledNotificationStyle compile(INotificationStyle style) {
+		if(style instanceof CompiledNotificationStyle) {
+			return (CompiledNotificationStyle) style;
+		}
+		return new CompiledNotificationStyle(style);
+	}
+
+	public int getWidth() {
+		return fWidth;
+	}
+
+	public int getWindowCornerRadius() {
+		return fWindowCornerRadius;
+	}
+
+	public Color getTitleFontColor() {
+		return fTitleFontColor;
+	}
+
+	public Font getTitleFont() {
+		return fTitleFont;
+	}
+
+	public Color getMessageFontColor() {
+		return fMessageFontColor;
+	}
+
+	public Font getMessageFont() {
+		return fMessageFont;
+	}
+
+	/**
+	 * Get the insets of the notification window. The insets are shared. Don't change them
+	 * @return the insets of the notification window
+	 */
+	public Insets getWindowInsets() {
+		return fWindowInsets;
+	}
+
+	public float getAlpha() {
+		return fAlpha;
+	}
+
+	public IBackground getBackground() {
+		return fBackground;
+	}
+
+	public IOverlay getOverlay() {
+		return fOverlay;
+	}
+
+	public ICloseButton getCloseButton() {
+		return fCloseButton;
+	}
+
+	public ICreateNotificationWindow getNotificationWindowCreator() {
+		return fWindowCreator;
+	}
+
+	/**
+	 * Get a map of custom parameters
+	 * @return an unmodifiable map of custom parameters
+	 */
+	public Map<String, Object> getCustomParams() {
+		return fCustomParams;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(!(obj instanceof CompiledNotificationStyle)) {
+			return false;
+		}
+		final CompiledNotificationStyle other = (CompiledNotificationStyle) obj;
+		return fHashCode == other.fHashCode
+				&& fWidth == other.fWidth
+				&& fWindowCornerRadius == other.fWindowCornerRadius
+				&& Float.floatToIntBits(fAlpha) == Float.floatToIntBits(other.fAlpha)
+				&& equal(fTitleFontColor, other.fTitleFontColor)
+				&& equal(fTitleFont, other.fTitleFont)
+				&& equal(fMessageFontColor, other.fMessageFontColor)
+				&& equal(fMessageFont, other.fMessageFont)
+				&& fWindowInsets.equals(other.fWindowInsets)
+				// these have no equals. The same instance paints the same
+				&& fBackground == other.fBackground
+				&& fOverlay == other.fOverlay
+				&& fCloseButton == other.fCloseButton
+				&& fWindowCreator == other.fWindowCreator
+				&& fCustomParams.equals(other.fCustomParams);
+	}
+
+	@Override
+	public int hashCode() {
+		return fHashCode;
+	}
+
+	private int computeHashCode() {
+		int hashCode = fWidth;
+		hashCode = 31 * hashCode + fWindowCornerRadius;
+		hashCode = 31 * hashCode + Float.floatToIntBits(fAlpha);
+		hashCode = 31 * hashCode + hashCode(fTitleFontColor);
+		hashCode = 31 * hashCode + hashCode(fTitleFont);
+		hashCode = 31 * hashCode + hashCode(fMessageFontColor);
+		hashCode = 31 * hashCode + hashCode(fMessageFont);
+		hashCode = 31 * hashCode + fWindowInsets.hashCode();
+		hashCode = 31 * hashCode + System.identityHashCode(fBackground);
+		hashCode = 31 * hashCode + System.identityHashCode(fOverlay);
+		hashCode = 31 * hashCode + System.identityHashCode(fCloseButton);
+		hashCode = 31 * hashCode + System.identityHashCode(fWindowCreator);
+		hashCode = 31 * hashCode + fCustomParams.hashCode();
+		return hashCode;
+	}
+
+	private static boolean equal(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	private static int hashCode(Object o) {
+		return o == null ? 0 : o.hashCode();
+	}
+}
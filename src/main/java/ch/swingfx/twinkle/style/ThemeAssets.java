@@ -0,0 +1,159 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.style;
+
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.UIManager;
+
+/**
+ * Process wide registry of the assets the styles share: images from the class path,
+ * the default font and the fonts derived from it, and shared theme instances.<br />
+ * Every asset is loaded once and then shared, so creating a style does no I/O and creates no Swing components.
+ * The shared images and themes must not be modified.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class ThemeAssets {
+	/** marks images that could not be loaded. The map can't hold null */
+	private static final Object NO_IMAGE = new Object();
+
+	private static final ConcurrentMap<String, Object> sImages = new ConcurrentHashMap<String, Object>();
+	private static final ConcurrentMap<String, Font> sFonts = new ConcurrentHashMap<String, Font>();
+	private static final ConcurrentMap<Class<?>, INotificationStyle> sThemes = new ConcurrentHashMap<Class<?>, INotificationStyle>();
+	private static volatile Font sDefaultFont;
+
+	private ThemeAssets() {
+	}
+
+	/**
+	 * Get an image from the class path. The image is read the first time and shared afterwards
+	 * @param resourcePath absolute path of the resource
+	 * @return the image or null if it can not be read
+	 */
+	public static BufferedImage getImage(String resourcePath) {
+		Object image = sImages.get(resourcePath);
+		if(image == null) {
+			image = readImage(resourcePath);
+			final Object previous = sImages.putIfAbsent(resourcePath, image);
+			if(previous != null) {
+				image = previous;
+			}
+		}
+		return image == NO_IMAGE ? null : (BufferedImage) image;
+	}
+
+	private static Object readImage(String resourcePath) {
+		final InputStream in = ThemeAssets.class.getResourceAsStream(resourcePath);
+		if(in == null) {
+			return NO_IMAGE;
+		}
+		try {
+			final BufferedImage image = ImageIO.read(in);
+			return image == null ? NO_IMAGE : image;
+		} catch (IOException e) {
+			return NO_IMAGE;
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// nothing we can do
+			}
+		}
+	}
+
+	/**
+	 * Get the font of a label in the current look and feel
+	 * @return the default font
+	 */
+	public static Font getDefaultFont() {
+		Font font = sDefaultFont;
+		if(font == null) {
+			font = UIManager.getFont("Label.font");
+			if(font == null) {
+				font = new Font(Font.DIALOG, Font.PLAIN, 12);
+			}
+			sDefaultFont = font;
+		}
+		return font;
+	}
+
+	/**
+	 * Get the default font with another size and style
+	 * @param size the size
+	 * @param style the style. See {@link Font#PLAIN}, {@link Font#BOLD} and {@link Font#ITALIC}
+	 * @return the derived font
+	 */
+	public static Font getDefaultFont(float size, int style) {
+		final String key = size + "-" + style;
+		Font font = sFonts.get(key);
+		if(font == null) {
+			font = getDefaultFont().deriveFont(style, size);
+			final Font previous = sFonts.putIfAbsent(key, font);
+			if(previous != null) {
+				font = previous;
+			}
+		}
+		return font;
+	}
+
+	/**
+	 * Get the shared instance of a theme. The instance is created with the no argument constructor the first time.
+	 * If it is an {@link AbstractNotificationStyle} it is frozen, so nobody can change it for the others.<br />
+	 * Reusing the same instance also lets a {@link ch.swingfx.twinkle.window.NotificationWindowPool} reuse the windows
+	 * of the theme. Create your own instance if you want to change the theme
+	 * @param themeClass class of the theme. Must have a public no argument constructor
+	 * @return the shared instance
+	 */
+	public static <T extends INotificationStyle> T getTheme(Class<T> themeClass) {
+		INotificationStyle theme = sThemes.get(themeClass);
+		if(theme == null) {
+			try {
+				theme = themeClass.newInstance();
+			} catch (InstantiationException e) {
+				throw new IllegalArgumentException(themeClass.getName() + " can not be instantiated", e);
+			} catch (IllegalAccessException e) {
+				throw new IllegalArgumentException(themeClass.getName() + " has no public no argument constructor", e);
+			}
+			if(theme instanceof AbstractNotificationStyle) {
+				((AbstractNotificationStyle) theme).freeze();
+			}
+			final INotificationStyle previous = sThemes.putIfAbsent(themeClass, theme);
+			if(previous != null) {
+				theme = previous;
+			}
+		}
+		return themeClass.cast(theme);
+	}
+
+	/**
+	 * Forget all assets. Call this after the look and feel changed.
+	 * Styles that are already created keep their assets
+	 */
+	public static void clear() {
+		sImages.clear();
+		sFonts.clear();
+		sThemes.clear();
+		sDefaultFont = null;
+	}
+}
@@ -15,15 +15,16 @@
 
 package ch.swingfx.twinkle.style.background;
 
-import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.GridBagLayout;
-import java.awt.MouseInfo;
-import java.awt.Point;
-import java.awt.Rectangle;
 
 import javax.swing.JPanel;
 
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Latency;
+import ch.swingfx.twinkle.metrics.Metrics;
+import ch.swingfx.twinkle.window.HoverState;
+
 
 
 /**
@@ -50,11 +51,21 @@ public class BackgroundPainterPanel extends JPanel {
 		fCornerRadius = cornerRadius;
 	}
 	
+	@Override
+	public void paint(Graphics g) {
+		final IMetricsCollector collector = Metrics.getCollector();
+		if(collector == null) {
+			super.paint(g);
+			return;
+		}
+		// measures the background and the children
+		final long startedAt = System.nanoTime();
+		super.paint(g);
+		collector.recordLatency(Latency.CONTENT_PAINT, System.nanoTime() - startedAt);
+	}
+
 	@Override
 	protected void paintComponent(Graphics g) {
-		final Point windowLocation = getRootPane().getParent().getLocationOnScreen();
-		final Dimension size = getRootPane().getSize();
-		final Rectangle rectangle = new Rectangle(windowLocation.x, windowLocation.y, size.width, size.height);
-		fBackground.paintBackground(g, rectangle.contains(MouseInfo.getPointerInfo().getLocation()), fCornerRadius);
+		fBackground.paintBackground(g, HoverState.isMouseOver(this), fCornerRadius);
 	}
 }
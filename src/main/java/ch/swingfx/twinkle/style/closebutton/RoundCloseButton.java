@@ -18,9 +18,8 @@ package ch.swingfx.twinkle.style.closebutton;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 
-import javax.imageio.ImageIO;
+import ch.swingfx.twinkle.style.ThemeAssets;
 
 /**
  * A simple round close button.
@@ -34,6 +33,7 @@ public class RoundCloseButton implements ICloseButton {
 	public static final int STROKE_WIDTH = 3;
 	public static final int TOP_LEFT = 8;
 	public static final int BOTTOM_RIGHT = 14;
+	private static final String DROP_SHADOW = "/ch/swingfx/twinkle/style/closebutton/resources/roundCloseButtonDropShadow.png";
 
 	private Ellipse2D.Double fButtonShape;
 	private BasicStroke fStroke;
@@ -64,11 +64,8 @@ public class RoundCloseButton implements ICloseButton {
 		fStroke = new BasicStroke(STROKE_WIDTH);
 		fButtonBackgroundColor = buttonBackgroundColor;
 		fButtonBorderColor = buttonBorderColor;
-		try {
-			fDropShadow = ImageIO.read(RoundCloseButton.class.getResourceAsStream("/ch/swingfx/twinkle/style/closebutton/resources/roundCloseButtonDropShadow.png"));
-		} catch (IOException e) {
-			// don't show the drop shadow
-		}
+		// shared by all buttons. null if it can't be read. Then we don't show the drop shadow
+		fDropShadow = ThemeAssets.getImage(DROP_SHADOW);
 	}
 	
 	public void paintCloseButton(Graphics g) {
@@ -0,0 +1,155 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.Dimension;
+import java.awt.GridBagConstraints;
+import java.awt.Insets;
+import java.util.Map;
+
+import javax.swing.Icon;
+import javax.swing.JLabel;
+
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.twinkle.style.background.BackgroundPainterPanel;
+
+/**
+ * The content of a {@link DefaultNotificationWindow}: the background, the icon, the title,
+ * the message and the badge. It needs no window, so it can also be painted into an image.
+ * See {@link OffscreenNotificationRenderer}
+ * @author Heinrich Spreiter
+ *
+ */
+public class DefaultNotificationContent extends BackgroundPainterPanel {
+	private static final long serialVersionUID = 1L;
+
+	/** default insets for the icon */
+	private static final Insets sIconInsets = new Insets(10, 5, 10, 10);
+	/** default insets for the title */
+	private static final Insets sTitleLabelInsets = new Insets(10, 0, 5, 10);
+	/** default insets for the message */
+	private static final Insets sMessageLabelInsets = new Insets(0, 0, 10, 10);
+	/** insets for the badge */
+	private static final Insets sBadgeInsets = new Insets(10, 0, 0, 10);
+
+	/** insets for the icon */
+	private final Insets fIconInsets;
+	/** insets for the title */
+	private final Insets fTitleLabelInsets;
+	/** insets for the message */
+	private final Insets fMessageLabelInsets;
+	private final JLabel fIconLabel;
+	private final WrappedTextComponent fTitleLabel;
+	private final WrappedTextComponent fMessageLabel;
+	/** shows the number of collapsed notifications */
+	private final JLabel fBadgeLabel;
+	/** width of the content */
+	private final int fWidth;
+
+	/**
+	 * Create the content
+	 * @param style style we want to use - can not be null
+	 * @param cornerRadius corner radius of the background
+	 */
+	public DefaultNotificationContent(INotificationStyle style, int cornerRadius) {
+		super(style.getBackground(), cornerRadius);
+		// setup insets
+		final Map<String,Object> customParams = style.getCustomParams();
+		Insets iconInsets = sIconInsets;
+		if (customParams.containsKey(DefaultNotificationWindow.OVERRIDE_ICON_INSETS)) {
+			iconInsets = (Insets) customParams.get(DefaultNotificationWindow.OVERRIDE_ICON_INSETS);
+		}
+		fIconInsets = iconInsets;
+		Insets titleLabelInsets = sTitleLabelInsets;
+		if (customParams.containsKey(DefaultNotificationWindow.OVERRIDE_TITLE_INSETS)) {
+			titleLabelInsets = (Insets) customParams.get(DefaultNotificationWindow.OVERRIDE_TITLE_INSETS);
+		}
+		fTitleLabelInsets = titleLabelInsets;
+		Insets messageLabelInsets = sMessageLabelInsets;
+		if (customParams.containsKey(DefaultNotificationWindow.OVERRIDE_MESSAGE_INSETS)) {
+			messageLabelInsets = (Insets) customParams.get(DefaultNotificationWindow.OVERRIDE_MESSAGE_INSETS);
+		}
+		fMessageLabelInsets = messageLabelInsets;
+		fWidth = style.getWidth();
+		setPreferredSize(new Dimension(fWidth, 100));
+
+		// an empty label is used for padding if there is no icon
+		fIconLabel = new JLabel();
+		add(fIconLabel, new GridBagConstraints(0, 0, 1, 2, 0, 0, GridBagConstraints.NORTH, GridBagConstraints.NONE, fIconInsets, 0, 0));
+
+		fTitleLabel = new WrappedTextComponent();
+		fTitleLabel.setForeground(style.getTitleFontColor());
+		fTitleLabel.setFont(style.getTitleFont());
+		add(fTitleLabel, new GridBagConstraints(1, 0, 1, 1, 1, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.HORIZONTAL, fTitleLabelInsets, 0, 0));
+
+		// only added if there is a message
+		fMessageLabel = new WrappedTextComponent();
+		fMessageLabel.setForeground(style.getMessageFontColor());
+		fMessageLabel.setFont(style.getMessageFont());
+
+		// only added if the content stands for more than one notification
+		fBadgeLabel = new JLabel();
+		fBadgeLabel.setForeground(style.getTitleFontColor());
+		fBadgeLabel.setFont(style.getTitleFont());
+	}
+
+	/**
+	 * Replace the icon, title, message and badge. Sets the preferred size of the content
+	 * to the size it needs. The caller has to lay it out
+	 * @param icon icon we want to display - can be null
+	 * @param title title we want to display - can not be null
+	 * @param message message we want to display - can be null
+	 * @param count number of notifications the content stands for. A badge is shown if it is &gt; 1
+	 * @return the preferred size
+	 */
+	public Dimension updateNotification(Icon icon, String title, String message, int count) {
+		if(title == null) {
+			// this is required!
+			throw new RuntimeException("Title can not be empty!");
+		}
+		fIconLabel.setIcon(icon);
+		fTitleLabel.setText(title);
+		if(message != null) {
+			fMessageLabel.setText(message);
+			if(fMessageLabel.getParent() == null) {
+				add(fMessageLabel, new GridBagConstraints(1, 1, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, fMessageLabelInsets, 0, 0));
+			}
+		} else if(fMessageLabel.getParent() != null) {
+			remove(fMessageLabel);
+		}
+		if(count > 1) {
+			fBadgeLabel.setText(String.valueOf(count));
+			if(fBadgeLabel.getParent() == null) {
+				add(fBadgeLabel, new GridBagConstraints(2, 0, 1, 1, 0, 0, GridBagConstraints.NORTHEAST, GridBagConstraints.NONE, sBadgeInsets, 0, 0));
+			}
+		} else if(fBadgeLabel.getParent() != null) {
+			remove(fBadgeLabel);
+		}
+		// the width is the width of the style,
+		// so we can compute all sizes before we lay out anything
+		final DefaultNotificationLayout layout = DefaultNotificationLayout.compute(fWidth,
+				fIconLabel.getPreferredSize(), fIconInsets,
+				title, fTitleLabel.getFontMetrics(fTitleLabel.getFont()), fTitleLabelInsets,
+				message, fMessageLabel.getFontMetrics(fMessageLabel.getFont()), fMessageLabelInsets,
+				count > 1 ? fBadgeLabel.getPreferredSize() : null, sBadgeInsets, TextMeasureCache.getSharedCache());
+		fTitleLabel.setPreferredSize(new Dimension(layout.fTitleWidth, layout.fTitleHeight));
+		if(message != null) {
+			fMessageLabel.setPreferredSize(new Dimension(layout.fMessageWidth, layout.fMessageHeight));
+		}
+		setPreferredSize(layout.fWindowSize);
+		return layout.fWindowSize;
+	}
+}
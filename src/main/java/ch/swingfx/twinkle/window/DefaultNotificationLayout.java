@@ -0,0 +1,89 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Insets;
+
+/**
+ * Computes the sizes of the components of a {@link DefaultNotificationWindow} in one pass.<br />
+ * The layout has three columns: the icon, the title and message below it and the optional badge.
+ * The width of the window is the width of the style, so the width of the text column is known
+ * before anything is laid out and the heights of the texts can be measured right away.
+ * @author Heinrich Spreiter
+ *
+ */
+final class DefaultNotificationLayout {
+	/** width of the title component */
+	final int fTitleWidth;
+	/** preferred height of the title */
+	final int fTitleHeight;
+	/** width of the message component */
+	final int fMessageWidth;
+	/** preferred height of the message. 0 if there is no message */
+	final int fMessageHeight;
+	/** size of the window */
+	final Dimension fWindowSize;
+
+	private DefaultNotificationLayout(int titleWidth, int titleHeight, int messageWidth, int messageHeight, Dimension windowSize) {
+		fTitleWidth = titleWidth;
+		fTitleHeight = titleHeight;
+		fMessageWidth = messageWidth;
+		fMessageHeight = messageHeight;
+		fWindowSize = windowSize;
+	}
+
+	/**
+	 * Compute the layout
+	 * @param width width of the window
+	 * @param iconSize preferred size of the icon component
+	 * @param iconInsets insets of the icon
+	 * @param title the title - can not be null
+	 * @param titleMetrics metrics of the title font
+	 * @param titleInsets insets of the title
+	 * @param message the message - can be null
+	 * @param messageMetrics metrics of the message font
+	 * @param messageInsets insets of the message
+	 * @param badgeSize preferred size of the badge or null if there is no badge
+	 * @param badgeInsets insets of the badge
+	 * @param cache cache for the heights of the texts
+	 * @return the layout
+	 */
+	static DefaultNotificationLayout compute(int width, Dimension iconSize, Insets iconInsets,
+			String title, FontMetrics titleMetrics, Insets titleInsets,
+			String message, FontMetrics messageMetrics, Insets messageInsets,
+			Dimension badgeSize, Insets badgeInsets, TextMeasureCache cache) {
+		int textColumnWidth = width - iconSize.width - iconInsets.left - iconInsets.right;
+		if(badgeSize != null) {
+			textColumnWidth -= badgeSize.width + badgeInsets.left + badgeInsets.right;
+		}
+		final int titleWidth = Math.max(0, textColumnWidth - titleInsets.left - titleInsets.right);
+		final int titleHeight = cache.getPreferredHeight(titleMetrics, titleWidth, titleInsets, title);
+
+		final int messageWidth = Math.max(0, textColumnWidth - messageInsets.left - messageInsets.right);
+		int messageHeight = 0;
+		if(message != null) {
+			messageHeight = cache.getPreferredHeight(messageMetrics, messageWidth, messageInsets, message);
+		}
+		int height = titleHeight + messageHeight + titleInsets.top + titleInsets.bottom + messageInsets.top + messageInsets.bottom;
+		final int iconHeight = iconSize.height + iconInsets.top + iconInsets.bottom;
+		if(height < iconHeight) {
+			height = iconHeight;
+		}
+		return new DefaultNotificationLayout(titleWidth, titleHeight, messageWidth, messageHeight, new Dimension(width, height));
+	}
+}
@@ -15,25 +15,14 @@
 
 package ch.swingfx.twinkle.window;
 
-import java.awt.Dimension;
 import java.awt.GraphicsConfiguration;
-import java.awt.GridBagConstraints;
-import java.awt.Insets;
-import java.util.Map;
 
 import javax.swing.Icon;
-import javax.swing.JLabel;
-import javax.swing.JPanel;
-import javax.swing.JTextArea;
 import javax.swing.JWindow;
-import javax.swing.plaf.basic.BasicTextAreaUI;
 
-import ch.swingfx.text.TextUtil;
+import ch.swingfx.twinkle.screen.WindowTranslucency;
 import ch.swingfx.twinkle.style.INotificationStyle;
-import ch.swingfx.twinkle.style.background.BackgroundPainterPanel;
-import ch.swingfx.window.translucentandshaped.ITranslucentAndShapedWindowApi;
 import ch.swingfx.window.translucentandshaped.Translucency;
-import ch.swingfx.window.translucentandshaped.TranslucentAndShapedWindowApiFactory;
 
 /**
  * The default notification window layout.<br />
@@ -50,19 +39,14 @@ import ch.swingfx.window.translucentandshaped.TranslucentAndShapedWindowApiFacto
  * @author Heinrich Spreiter
  *
  */
-public class DefaultNotificationWindow extends JWindow {
+public class DefaultNotificationWindow extends JWindow implements IUpdatableNotificationWindow {
 	private static final long serialVersionUID = 1L;
 
 	public static final String OVERRIDE_ICON_INSETS = DefaultNotificationWindow.class.getName() + "-icon-insets";
 	public static final String OVERRIDE_TITLE_INSETS = DefaultNotificationWindow.class.getName() + "-title-insets";
 	public static final String OVERRIDE_MESSAGE_INSETS = DefaultNotificationWindow.class.getName() + "-message-insets";
 
-	/** default insets for the icon */
-	private static final Insets sIconInsets = new Insets(10, 5, 10, 10);
-	/** default insets for the title */
-	private static final Insets sTitleLabelInsets = new Insets(10, 0, 5, 10);
-	/** default insets for the message */
-	private static final Insets sMessageLabelInsets = new Insets(0, 0, 10, 10);
+	private final DefaultNotificationContent fContent;
 
 	/**
 	 * Create a new notification
@@ -74,99 +58,34 @@ public class DefaultNotificationWindow extends JWindow {
 	 */
 	public DefaultNotificationWindow(Icon icon, String title, String message, INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
 		super(graphicsConfiguration);
-		// setup insets
-		final Map<String,Object> customParams = style.getCustomParams();
-		Insets fIconInsets = sIconInsets;
-		if (customParams.containsKey(OVERRIDE_ICON_INSETS)) {
-			fIconInsets = (Insets) customParams.get(OVERRIDE_ICON_INSETS);
-		}
-		Insets fTitleLabelInsets = sTitleLabelInsets;
-		if (customParams.containsKey(OVERRIDE_TITLE_INSETS)) {
-			fTitleLabelInsets = (Insets) customParams.get(OVERRIDE_TITLE_INSETS);
-		}
-		Insets fMessageLabelInsets = sMessageLabelInsets;
-		if (customParams.containsKey(OVERRIDE_MESSAGE_INSETS)) {
-			fMessageLabelInsets = (Insets) customParams.get(OVERRIDE_MESSAGE_INSETS);
-		}
-		
         int cornerRadius = 0;
-		final ITranslucentAndShapedWindowApi api = TranslucentAndShapedWindowApiFactory.getApi();
+		final WindowTranslucency api = WindowTranslucency.getDefault();
 		// can we draw rounded corners?
 		if(api.isTranslucencyCapable(graphicsConfiguration) && 
 				api.isTranslucencySupported(Translucency.PERPIXEL_TRANSLUCENT, graphicsConfiguration.getDevice())) {
 			cornerRadius = style.getWindowCornerRadius();
 		}
-        JPanel fContentPane = new BackgroundPainterPanel(style.getBackground(), cornerRadius);
-		fContentPane.setPreferredSize(new Dimension(style.getWidth(), 100));
-		getContentPane().add(fContentPane);
-		
-        JLabel fIconLabel;
-        if(icon != null) {
-			fIconLabel = new JLabel(icon);
-		} else {
-			// add an empty label for padding
-			fIconLabel = new JLabel("");
-		}
-		fContentPane.add(fIconLabel, new GridBagConstraints(0, 0, 1, 2, 0, 0, GridBagConstraints.NORTH, GridBagConstraints.NONE, fIconInsets, 0, 0));
-
-        JTextArea fTitleLabel;
-        if(title != null) {
-			fTitleLabel = getTextAreaForDisplay(title);
-			fTitleLabel.setForeground(style.getTitleFontColor());
-			fTitleLabel.setFont(style.getTitleFont());
-			fContentPane.add(fTitleLabel, new GridBagConstraints(1, 0, 1, 1, 1, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.HORIZONTAL, fTitleLabelInsets, 0, 0));
-		} else {
-			// this is required!
-			throw new RuntimeException("Title can not be empty!");
-		}
-
-        JTextArea fMessageLabel;
-        if(message != null) {
-			fMessageLabel = getTextAreaForDisplay(message);
-			fMessageLabel.setForeground(style.getMessageFontColor());
-			fMessageLabel.setFont(style.getMessageFont());
-            fContentPane.add(fMessageLabel, new GridBagConstraints(1, 1, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, fMessageLabelInsets, 0, 0));
-		} else {
-			fMessageLabel = null;
-		}
-		// call to pack calculates the correct widths of the TextAreas
-		// but not the correct heights.
-		pack();
-		
-		// that's why we calculated the preferred heights here,
-		// set the new preferred heights
-		// and pack it again
-		int titlePreferredHeight = TextUtil.calculatePreferredHeight(fTitleLabel.getFontMetrics(fTitleLabel.getFont()), fTitleLabel.getWidth() - fTitleLabelInsets.left - fTitleLabelInsets.right, title);
-        fTitleLabel.setPreferredSize(new Dimension(fTitleLabel.getWidth(), titlePreferredHeight));
+		fContent = new DefaultNotificationContent(style, cornerRadius);
+		getContentPane().add(fContent);
 
-        int messagePreferredHeight = 0;
-		if(message != null) {
-			messagePreferredHeight = TextUtil.calculatePreferredHeight(fMessageLabel.getFontMetrics(fMessageLabel.getFont()), fMessageLabel.getWidth() - fMessageLabelInsets.left - fMessageLabelInsets.right, message);
-			fMessageLabel.setPreferredSize(new Dimension(fMessageLabel.getWidth(), messagePreferredHeight));
-		}
-		int preferredHeight = titlePreferredHeight + messagePreferredHeight + fTitleLabelInsets.top + fTitleLabelInsets.bottom + fMessageLabelInsets.top + fMessageLabelInsets.bottom;
-		final int iconHeight = fIconLabel.getHeight() + fIconInsets.top + fIconInsets.bottom;
-		if(preferredHeight < iconHeight) {
-			preferredHeight = iconHeight;
-		}
-		setPreferredSize(new Dimension(getPreferredSize().width, preferredHeight));
-		pack();
+		setContent(icon, title, message);
 	}
 
 	/**
-	 * Constructs a new display only {@link JTextArea}
-	 * @param text text that the {@link JTextArea} displays
-	 * @return a new display only {@link JTextArea}
+	 * Replace the icon, title and message, remove the badge and lay out the window again.
+	 * The style and the {@link GraphicsConfiguration} stay the same.
+	 * @param icon icon we want to display - can be null
+	 * @param title title we want to display - can not be null
+	 * @param message message we want to display - can be null
 	 */
-	private JTextArea getTextAreaForDisplay(String text) {
-		final JTextArea ta = new JTextArea(text);
-		ta.setUI(new BasicTextAreaUI());
-		ta.setEditable(false);
-		ta.setFocusable(false);
-		ta.setOpaque(false);
-		ta.setWrapStyleWord(true);
-		ta.setLineWrap(true);
-		return ta;
+	public void setContent(Icon icon, String title, String message) {
+		updateNotification(icon, title, message, 1);
+	}
+
+	public void updateNotification(Icon icon, String title, String message, int count) {
+		// the content knows its size before it is laid out, so we only have to pack once
+		fContent.updateNotification(icon, title, message, count);
+		pack();
 	}
 	
 }
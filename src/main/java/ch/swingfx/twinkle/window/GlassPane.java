@@ -22,6 +22,9 @@ import java.awt.RenderingHints;
 import javax.swing.JPanel;
 import javax.swing.JWindow;
 
+import ch.swingfx.twinkle.metrics.IMetricsCollector;
+import ch.swingfx.twinkle.metrics.Latency;
+import ch.swingfx.twinkle.metrics.Metrics;
 import ch.swingfx.twinkle.style.INotificationStyle;
 import ch.swingfx.twinkle.style.closebutton.ICloseButton;
 import ch.swingfx.twinkle.style.overlay.IOverlay;
@@ -38,6 +41,9 @@ public class GlassPane extends JPanel {
 	private final JWindow fWindow;
 	private final INotificationStyle fStyle;
 	private final int fCornerRadius;
+	private final HoverState fHoverState;
+	/** runs after the first paint. null if there is nothing to run */
+	private Runnable fFirstPaintAction;
 	
 	/**
 	 * Create a new {@link GlassPane}
@@ -50,19 +56,60 @@ public class GlassPane extends JPanel {
 		fWindow = window;
 		fStyle  = style;
 		fCornerRadius = cornerRadius;
+		fHoverState = HoverState.install(window);
 		
 		fWindow.setGlassPane(this);
 	}
 	
+	/**
+	 * Get the hover state of the window. Update it if the mouse enters or exits the window
+	 * @return the {@link HoverState}
+	 */
+	public HoverState getHoverState() {
+		return fHoverState;
+	}
+	
+	/**
+	 * Set an action that runs once after the glass pane painted the first time. The glass pane paints
+	 * after the content, so this is the first time the window is completely painted
+	 * @param action the action - null to remove it
+	 */
+	public void setFirstPaintAction(Runnable action) {
+		fFirstPaintAction = action;
+	}
+
 	protected void paintComponent(Graphics g) {
+		final IMetricsCollector collector = Metrics.getCollector();
+		if(collector == null) {
+			paintOverlay(g, fStyle, fCornerRadius, fHoverState.isMouseOver());
+		} else {
+			final long startedAt = System.nanoTime();
+			paintOverlay(g, fStyle, fCornerRadius, fHoverState.isMouseOver());
+			collector.recordLatency(Latency.OVERLAY_PAINT, System.nanoTime() - startedAt);
+		}
+		if(fFirstPaintAction != null) {
+			final Runnable action = fFirstPaintAction;
+			fFirstPaintAction = null;
+			action.run();
+		}
+	}
+
+	/**
+	 * Paint the overlay and, if the mouse is over, the close button of a style
+	 * @param g graphics to paint on
+	 * @param style style of the notification
+	 * @param cornerRadius the corner radius of the window
+	 * @param mouseOver true if the mouse is over the notification
+	 */
+	static void paintOverlay(Graphics g, INotificationStyle style, int cornerRadius, boolean mouseOver) {
 		Graphics2D copy = (Graphics2D) g.create();
 		copy.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 		
-		if(fWindow.getMousePosition() != null) {
-			fStyle.getOverlay().paintOverlayMouseOver(copy, fCornerRadius);
-			fStyle.getCloseButton().paintCloseButton(copy);
+		if(mouseOver) {
+			style.getOverlay().paintOverlayMouseOver(copy, cornerRadius);
+			style.getCloseButton().paintCloseButton(copy);
 		} else {
-			fStyle.getOverlay().paintOverlayMouseOut(copy, fCornerRadius);
+			style.getOverlay().paintOverlayMouseOut(copy, cornerRadius);
 		}
 		copy.dispose();
 	}
@@ -0,0 +1,95 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.Component;
+
+import javax.swing.JComponent;
+import javax.swing.JWindow;
+import javax.swing.SwingUtilities;
+
+/**
+ * Tells if the mouse is over a notification window.<br />
+ * The state is updated from the mouseEntered and mouseExited events of the window,
+ * so painting never has to ask the window system where the pointer is.
+ * Must be used on the EDT.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class HoverState {
+	private boolean fMouseOver;
+
+	private HoverState() {
+	}
+
+	/**
+	 * Install a new hover state in a window. Replaces the state the window had before
+	 * @param window the window
+	 * @return the new state. The mouse is not over the window
+	 */
+	public static HoverState install(JWindow window) {
+		final HoverState hoverState = new HoverState();
+		window.getRootPane().putClientProperty(HoverState.class, hoverState);
+		return hoverState;
+	}
+
+	/**
+	 * Install a new hover state in a component that is painted without a window.
+	 * The components in it find the state if they have no root pane
+	 * @param component the top most component
+	 * @return the new state. The mouse is not over the component
+	 */
+	public static HoverState install(JComponent component) {
+		final HoverState hoverState = new HoverState();
+		component.putClientProperty(HoverState.class, hoverState);
+		return hoverState;
+	}
+
+	/**
+	 * Check if the mouse is over the window of a component
+	 * @param component a component in a window with a hover state
+	 * @return true if the mouse is over the window, false if not or if the window has no hover state
+	 */
+	public static boolean isMouseOver(Component component) {
+		JComponent holder = SwingUtilities.getRootPane(component);
+		if(holder == null) {
+			// painted without a window. See install(JComponent)
+			final Component root = SwingUtilities.getRoot(component);
+			if(!(root instanceof JComponent)) {
+				return false;
+			}
+			holder = (JComponent) root;
+		}
+		final HoverState hoverState = (HoverState) holder.getClientProperty(HoverState.class);
+		return hoverState != null && hoverState.fMouseOver;
+	}
+
+	/**
+	 * Check if the mouse is over the window
+	 * @return true if the mouse is over the window
+	 */
+	public boolean isMouseOver() {
+		return fMouseOver;
+	}
+
+	/**
+	 * Set if the mouse is over the window
+	 * @param mouseOver true if the mouse is over the window
+	 */
+	public void setMouseOver(boolean mouseOver) {
+		fMouseOver = mouseOver;
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+
+import ch.swingfx.twinkle.style.INotificationStyle;
+
+/**
+ * Implement this interface in your {@link ICreateNotificationWindow} if the content of your windows
+ * can be created without a window. The {@link OffscreenNotificationRenderer} uses it to paint
+ * notifications into images.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface ICreateNotificationContent {
+	/**
+	 * Creates the content of a notification window. It paints the background but not the overlay and the close button.
+	 * Its preferred size is the size of the window
+	 * @param icon The icon of the notification
+	 * @param title The title of the notification
+	 * @param message The message of the notification
+	 * @param count The number of notifications the content stands for
+	 * @param style The {@link INotificationStyle} of the notification
+	 * @param cornerRadius The corner radius of the background
+	 * @return the new content
+	 */
+	public JComponent createNotificationContent(Icon icon, String title, String message, int count, INotificationStyle style, int cornerRadius);
+}
@@ -0,0 +1,36 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import javax.swing.Icon;
+
+/**
+ * Implement this interface in the windows of your {@link ICreateNotificationWindow} if they can show
+ * new content. Managers then update a visible window instead of showing a new one if a notification
+ * with the same collapse key arrives.
+ * @author Heinrich Spreiter
+ *
+ */
+public interface IUpdatableNotificationWindow {
+	/**
+	 * Show new content and lay out the window again
+	 * @param icon icon we want to display - can be null
+	 * @param title title we want to display - can not be null
+	 * @param message message we want to display - can be null
+	 * @param count number of notifications the window stands for. Show it in a badge if it is greater than 1
+	 */
+	public void updateNotification(Icon icon, String title, String message, int count);
+}
@@ -0,0 +1,290 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import javax.swing.Icon;
+import javax.swing.JWindow;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import ch.swingfx.twinkle.style.AbstractNotificationStyle;
+import ch.swingfx.twinkle.style.CompiledNotificationStyle;
+import ch.swingfx.twinkle.style.INotificationStyle;
+
+/**
+ * Creates {@link DefaultNotificationWindow}s and reuses them.<br />
+ * When a window of this pool is disposed it is hidden and kept together with its native peer
+ * instead of being destroyed. The next notification with the same {@link INotificationStyle}
+ * on the same {@link GraphicsConfiguration} gets this window with the new content.
+ * Windows that are not used for <code>idleTimeout</code> milliseconds are destroyed.<br />
+ * Call {@link #keepWarm(INotificationStyle, GraphicsConfiguration)} to always have an idle window for a style.
+ * The first notification with that style then does not have to wait for a native peer.<br />
+ * Use {@link NotificationWindowTypes}.POOLED for the shared pool, or
+ * <code>
+ * {@link AbstractNotificationStyle}.withNotificationWindowCreator(new NotificationWindowPool(8, 60000))
+ * </code>
+ * <br />
+ * The pool must only be used on the EDT.
+ * @author Heinrich Spreiter
+ *
+ */
+public class NotificationWindowPool implements ICreateNotificationWindow {
+	/** default maximum number of idle windows */
+	public static final int DEFAULT_MAX_IDLE_WINDOWS = 8;
+	/** default time in milliseconds after which an idle window is destroyed */
+	public static final int DEFAULT_IDLE_TIMEOUT = 60000;
+
+	private final int fMaxIdleWindows;
+	private final int fIdleTimeout;
+	/** idle windows by style and graphics configuration. Most recently used last */
+	private final Map<PoolKey, LinkedList<PooledNotificationWindow>> fIdleWindows;
+	/** number of idle windows in fIdleWindows */
+	private int fIdleCount;
+	/** destroys windows that are idle for too long. Only runs if there are idle windows */
+	private final Timer fEvictionTimer;
+	/** keys that always have an idle window. Least recently warmed first. See keepWarm() */
+	private final Map<PoolKey, Boolean> fWarmKeys;
+
+	/**
+	 * Create a pool with {@link #DEFAULT_MAX_IDLE_WINDOWS} and {@link #DEFAULT_IDLE_TIMEOUT}
+	 */
+	public NotificationWindowPool() {
+		this(DEFAULT_MAX_IDLE_WINDOWS, DEFAULT_IDLE_TIMEOUT);
+	}
+
+	/**
+	 * Create a new pool
+	 * @param maxIdleWindows maximum number of idle windows the pool keeps. Must be &gt;= 0
+	 * @param idleTimeout time in milliseconds after which an idle window is destroyed. Must be &gt; 0
+	 */
+	public NotificationWindowPool(int maxIdleWindows, int idleTimeout) {
+		if(maxIdleWindows < 0) {
+			throw new IllegalArgumentException("maxIdleWindows must be >= 0");
+		}
+		if(idleTimeout <= 0) {
+			throw new IllegalArgumentException("idleTimeout must be > 0");
+		}
+		fMaxIdleWindows = maxIdleWindows;
+		fIdleTimeout = idleTimeout;
+		fIdleWindows = new HashMap<PoolKey, LinkedList<PooledNotificationWindow>>();
+		fIdleCount = 0;
+		fWarmKeys = new LinkedHashMap<PoolKey, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<PoolKey, Boolean> eldest) {
+				// the window of a forgotten key becomes a normal idle window and is evicted after the timeout
+				return size() > fMaxIdleWindows;
+			}
+		};
+		fEvictionTimer = new Timer(Math.max(idleTimeout / 2, 1000), new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				evictIdleWindows(System.currentTimeMillis() - fIdleTimeout);
+			}
+		});
+	}
+
+	public JWindow createNotificationWindow(Icon icon, String title, String message, INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
+		final PoolKey key = new PoolKey(style, graphicsConfiguration);
+		final LinkedList<PooledNotificationWindow> windows = fIdleWindows.get(key);
+		if(windows != null && !windows.isEmpty()) {
+			final PooledNotificationWindow window = windows.removeLast();
+			fIdleCount--;
+			if(fIdleCount == 0) {
+				fEvictionTimer.stop();
+			}
+			if(windows.isEmpty() && fWarmKeys.containsKey(key)) {
+				scheduleWarmUp(key);
+			}
+			window.setContent(icon, title, message);
+			return window;
+		}
+		return new PooledNotificationWindow(this, icon, title, message, style, graphicsConfiguration);
+	}
+
+	/**
+	 * Always keep an idle window with its native peer for a style. If the pool hands it out, a new one
+	 * is created in a later EDT event. Creates the window now if there is none.<br />
+	 * The warm window is never evicted, but it counts as an idle window. The pool keeps at most
+	 * <code>maxIdleWindows</code> styles warm, the least recently warmed style is forgotten first.
+	 * Styles that are not {@link CompiledNotificationStyle}s are compared by identity, so use shared instances
+	 * @param style the style
+	 * @param graphicsConfiguration the {@link GraphicsConfiguration} of the screen the notifications are shown on
+	 */
+	public void keepWarm(INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
+		final PoolKey key = new PoolKey(style, graphicsConfiguration);
+		if(fWarmKeys.put(key, Boolean.TRUE) == null) {
+			warmUp(key);
+		}
+	}
+
+	/**
+	 * Check if the pool keeps a window warm for a style
+	 * @param style the style
+	 * @param graphicsConfiguration the {@link GraphicsConfiguration}
+	 * @return true if keepWarm() was called for the style
+	 */
+	public boolean isWarm(INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
+		return fWarmKeys.containsKey(new PoolKey(style, graphicsConfiguration));
+	}
+
+	private void scheduleWarmUp(final PoolKey key) {
+		// not now. The caller is about to show a notification
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+				if(fWarmKeys.containsKey(key)) {
+					warmUp(key);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Create an idle window for the key if it has none
+	 * @param key the key
+	 */
+	private void warmUp(PoolKey key) {
+		final LinkedList<PooledNotificationWindow> windows = fIdleWindows.get(key);
+		if((windows != null && !windows.isEmpty()) || !hasRoom()) {
+			return;
+		}
+		// pack() creates the native peer. The window gets its real content and size when it is used
+		release(new PooledNotificationWindow(this, null, " ", null, key.fStyle, key.fGraphicsConfiguration));
+	}
+
+	/**
+	 * Get the number of idle windows in the pool
+	 * @return the number of idle windows
+	 */
+	public int getIdleCount() {
+		return fIdleCount;
+	}
+
+	/**
+	 * Destroy all idle windows and stop keeping windows warm
+	 */
+	public void clear() {
+		fWarmKeys.clear();
+		evictIdleWindows(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Check if the pool takes back the window
+	 * @param window window that is disposed
+	 * @return true if the window can be released to the pool
+	 */
+	boolean isAccepting(PooledNotificationWindow window) {
+		return hasRoom();
+	}
+
+	/**
+	 * Check if the pool can keep another idle window
+	 * @return true if there are less than maxIdleWindows idle windows
+	 */
+	private boolean hasRoom() {
+		return fIdleCount < fMaxIdleWindows;
+	}
+
+	/**
+	 * Put a hidden window back into the pool
+	 * @param window the window
+	 */
+	void release(PooledNotificationWindow window) {
+		final PoolKey key = new PoolKey(window.getStyle(), window.getPoolGraphicsConfiguration());
+		LinkedList<PooledNotificationWindow> windows = fIdleWindows.get(key);
+		if(windows == null) {
+			windows = new LinkedList<PooledNotificationWindow>();
+			fIdleWindows.put(key, windows);
+		}
+		window.setIdleSince(System.currentTimeMillis());
+		windows.addLast(window);
+		fIdleCount++;
+		if(!fEvictionTimer.isRunning()) {
+			fEvictionTimer.start();
+		}
+	}
+
+	/**
+	 * Destroy all windows that are idle since <code>idleBefore</code>
+	 * @param idleBefore time in millis
+	 */
+	private void evictIdleWindows(long idleBefore) {
+		final Iterator<Map.Entry<PoolKey, LinkedList<PooledNotificationWindow>>> it = fIdleWindows.entrySet().iterator();
+		while(it.hasNext()) {
+			final Map.Entry<PoolKey, LinkedList<PooledNotificationWindow>> entry = it.next();
+			final LinkedList<PooledNotificationWindow> windows = entry.getValue();
+			// least recently used windows are at the front. Keep the last window of a warm key
+			final int keep = fWarmKeys.containsKey(entry.getKey()) ? 1 : 0;
+			while(windows.size() > keep && windows.getFirst().getIdleSince() <= idleBefore) {
+				windows.removeFirst().disposeNow();
+				fIdleCount--;
+			}
+			if(windows.isEmpty()) {
+				it.remove();
+			}
+		}
+		if(fIdleCount == 0) {
+			fEvictionTimer.stop();
+		}
+	}
+
+	/**
+	 * Windows can only be reused for the same style on the same screen
+	 */
+	private static final class PoolKey {
+		private final INotificationStyle fStyle;
+		private final GraphicsConfiguration fGraphicsConfiguration;
+
+		PoolKey(INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
+			fStyle = style;
+			fGraphicsConfiguration = graphicsConfiguration;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof PoolKey)) {
+				return false;
+			}
+			final PoolKey other = (PoolKey) obj;
+			return sameStyle(fStyle, other.fStyle) && fGraphicsConfiguration.equals(other.fGraphicsConfiguration);
+		}
+
+		@Override
+		public int hashCode() {
+			final int styleHashCode = fStyle instanceof CompiledNotificationStyle ? fStyle.hashCode() : System.identityHashCode(fStyle);
+			return 31 * styleHashCode + fGraphicsConfiguration.hashCode();
+		}
+
+		/**
+		 * Compiled styles with the same values create the same windows. Other styles can change, so only the same instance counts
+		 */
+		private static boolean sameStyle(INotificationStyle a, INotificationStyle b) {
+			if(a instanceof CompiledNotificationStyle) {
+				return a.equals(b);
+			}
+			return a == b;
+		}
+	}
+}
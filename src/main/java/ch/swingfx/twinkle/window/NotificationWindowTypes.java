@@ -18,6 +18,7 @@ package ch.swingfx.twinkle.window;
 import java.awt.GraphicsConfiguration;
 
 import javax.swing.Icon;
+import javax.swing.JComponent;
 import javax.swing.JWindow;
 
 import ch.swingfx.twinkle.style.INotificationStyle;
@@ -27,7 +28,7 @@ import ch.swingfx.twinkle.style.INotificationStyle;
  * @author Heinrich Spreiter
  *
  */
-public enum NotificationWindowTypes implements ICreateNotificationWindow {
+public enum NotificationWindowTypes implements ICreateNotificationWindow, ICreateNotificationContent {
 	/**
 	 * The default notification window.
 	 */
@@ -36,6 +37,37 @@ public enum NotificationWindowTypes implements ICreateNotificationWindow {
 			return new DefaultNotificationWindow(icon, title, message, style, graphicsConfiguration);
 		}
 		
+	},
+	/**
+	 * The default notification window. Closed windows are kept in a shared
+	 * {@link NotificationWindowPool} and reused for the next notification with the same style.
+	 */
+	POOLED {
+		public JWindow createNotificationWindow(Icon icon, String title, String message, INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
+			return SharedPool.INSTANCE.createNotificationWindow(icon, title, message, style, graphicsConfiguration);
+		}
+	};
+
+	public JComponent createNotificationContent(Icon icon, String title, String message, int count, INotificationStyle style, int cornerRadius) {
+		// both types use the default layout
+		final DefaultNotificationContent content = new DefaultNotificationContent(style, cornerRadius);
+		content.updateNotification(icon, title, message, count);
+		return content;
+	}
+
+	/**
+	 * Get the pool of {@link #POOLED}
+	 * @return the shared pool
+	 */
+	public static NotificationWindowPool getSharedPool() {
+		return SharedPool.INSTANCE;
+	}
+
+	/**
+	 * Holder of the shared pool. Created on first use
+	 */
+	private static final class SharedPool {
+		private static final NotificationWindowPool INSTANCE = new NotificationWindowPool();
 	}
 
 }
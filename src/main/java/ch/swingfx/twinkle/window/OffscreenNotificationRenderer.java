@@ -0,0 +1,177 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+
+import ch.swingfx.twinkle.Notification;
+import ch.swingfx.twinkle.style.INotificationStyle;
+
+/**
+ * Paints notifications into images without creating a window, so it also works
+ * on a headless system. Use it to measure the cost of rendering or to show notifications
+ * inside of your application.<br />
+ * The content comes from the {@link ICreateNotificationWindow} of the style if it implements
+ * {@link ICreateNotificationContent}, otherwise from a {@link DefaultNotificationContent}.
+ * The background, overlay and close button of the style are painted like in a window with per pixel
+ * translucency, so the corners are rounded.<br />
+ * Must be used on the EDT, like every Swing component, or on a thread that owns the style exclusively.
+ * @author Heinrich Spreiter
+ *
+ */
+public final class OffscreenNotificationRenderer {
+
+	private OffscreenNotificationRenderer() {
+		//
+	}
+
+	/**
+	 * Render a notification
+	 * @param notification the notification
+	 * @param mouseOver true to paint the notification like the mouse is over it
+	 * @return a new image with the size of the notification window
+	 */
+	public static BufferedImage render(Notification notification, boolean mouseOver) {
+		return render(notification.getIcon(), notification.getTitle(), notification.getMessage(), notification.getCount(), notification.getStyle(), mouseOver);
+	}
+
+	/**
+	 * Render a notification
+	 * @param icon icon we want to display - can be null
+	 * @param title title we want to display - can not be null
+	 * @param message message we want to display - can be null
+	 * @param count number of notifications. A badge is shown if it is &gt; 1
+	 * @param style style we want to use - can not be null
+	 * @param mouseOver true to paint the notification like the mouse is over it
+	 * @return a new image with the size of the notification window
+	 */
+	public static BufferedImage render(Icon icon, String title, String message, int count, INotificationStyle style, boolean mouseOver) {
+		final JComponent content = createContent(icon, title, message, count, style);
+		final BufferedImage image = new BufferedImage(content.getWidth(), content.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+		final Graphics2D g = image.createGraphics();
+		try {
+			paint(g, content, style, mouseOver);
+		} finally {
+			g.dispose();
+		}
+		return image;
+	}
+
+	/**
+	 * Render a notification into a {@link VolatileImage}. Its contents can be lost, check {@link VolatileImage#contentsLost()}
+	 * before you use it and render it again if needed
+	 * @param graphicsConfiguration the {@link GraphicsConfiguration} the image is for
+	 * @param icon icon we want to display - can be null
+	 * @param title title we want to display - can not be null
+	 * @param message message we want to display - can be null
+	 * @param count number of notifications. A badge is shown if it is &gt; 1
+	 * @param style style we want to use - can not be null
+	 * @param mouseOver true to paint the notification like the mouse is over it
+	 * @return a new image with the size of the notification window
+	 */
+	public static VolatileImage renderVolatile(GraphicsConfiguration graphicsConfiguration, Icon icon, String title, String message, int count, INotificationStyle style, boolean mouseOver) {
+		final JComponent content = createContent(icon, title, message, count, style);
+		VolatileImage image = graphicsConfiguration.createCompatibleVolatileImage(content.getWidth(), content.getHeight(), Transparency.TRANSLUCENT);
+		do {
+			if(image.validate(graphicsConfiguration) == VolatileImage.IMAGE_INCOMPATIBLE) {
+				image = graphicsConfiguration.createCompatibleVolatileImage(content.getWidth(), content.getHeight(), Transparency.TRANSLUCENT);
+			}
+			final Graphics2D g = image.createGraphics();
+			try {
+				// volatile images are not cleared
+				g.setComposite(AlphaComposite.Clear);
+				g.fillRect(0, 0, image.getWidth(), image.getHeight());
+				g.setComposite(AlphaComposite.SrcOver);
+				paint(g, content, style, mouseOver);
+			} finally {
+				g.dispose();
+			}
+		} while(image.contentsLost());
+		return image;
+	}
+
+	/**
+	 * Create the content of a notification and lay it out at its preferred size
+	 * @param icon icon we want to display - can be null
+	 * @param title title we want to display - can not be null
+	 * @param message message we want to display - can be null
+	 * @param count number of notifications. A badge is shown if it is &gt; 1
+	 * @param style style we want to use - can not be null
+	 * @return the content. Ready to paint
+	 */
+	public static JComponent createContent(Icon icon, String title, String message, int count, INotificationStyle style) {
+		final ICreateNotificationWindow windowCreator = style.getNotificationWindowCreator();
+		final JComponent content;
+		if(windowCreator instanceof ICreateNotificationContent) {
+			content = ((ICreateNotificationContent) windowCreator).createNotificationContent(icon, title, message, count, style, style.getWindowCornerRadius());
+		} else {
+			final DefaultNotificationContent defaultContent = new DefaultNotificationContent(style, style.getWindowCornerRadius());
+			defaultContent.updateNotification(icon, title, message, count);
+			content = defaultContent;
+		}
+		// we paint it ourselves. Without a window there is no back buffer
+		content.setDoubleBuffered(false);
+		final Dimension size = content.getPreferredSize();
+		content.setSize(size);
+		layout(content);
+		return content;
+	}
+
+	/**
+	 * Paint content created by createContent() and the overlay and close button of the style
+	 * @param g graphics to paint on. 0,0 is the top left corner of the notification
+	 * @param content the content
+	 * @param style the style of the content
+	 * @param mouseOver true to paint the notification like the mouse is over it
+	 */
+	public static void paint(Graphics2D g, JComponent content, INotificationStyle style, boolean mouseOver) {
+		HoverState.install(content).setMouseOver(mouseOver);
+		final Graphics2D copy = (Graphics2D) g.create();
+		try {
+			// the backgrounds fill the clip
+			copy.clipRect(0, 0, content.getWidth(), content.getHeight());
+			content.paint(copy);
+			GlassPane.paintOverlay(copy, style, style.getWindowCornerRadius(), mouseOver);
+		} finally {
+			copy.dispose();
+		}
+	}
+
+	/**
+	 * Lay out a component and its children. Without a window validate() does nothing
+	 * @param component the component
+	 */
+	private static void layout(Component component) {
+		if(component instanceof Container) {
+			final Container container = (Container) component;
+			container.doLayout();
+			for(Component child : container.getComponents()) {
+				layout(child);
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.Toolkit;
+import java.awt.event.WindowEvent;
+import java.awt.event.WindowListener;
+
+import javax.swing.Icon;
+
+import ch.swingfx.twinkle.screen.WindowTranslucency;
+import ch.swingfx.twinkle.style.INotificationStyle;
+import ch.swingfx.window.translucentandshaped.Translucency;
+
+/**
+ * A {@link DefaultNotificationWindow} that returns itself to its {@link NotificationWindowPool}
+ * instead of destroying its native peer when it is disposed.<br />
+ * For the rest of Twinkle it behaves like a window that is disposed and created again:
+ * dispose() sends WINDOW_CLOSED and removes all window listeners, setVisible(true) sends
+ * WINDOW_OPENED every time the window is shown.
+ * @author Heinrich Spreiter
+ *
+ */
+class PooledNotificationWindow extends DefaultNotificationWindow {
+	private static final long serialVersionUID = 1L;
+
+	private final NotificationWindowPool fPool;
+	private final INotificationStyle fStyle;
+	private final GraphicsConfiguration fGraphicsConfiguration;
+	/** true after the window was shown once. WINDOW_OPENED is then sent by us and not by the window */
+	private boolean fShownBefore;
+	/** time in millis when the window was returned to the pool */
+	private long fIdleSince;
+
+	PooledNotificationWindow(NotificationWindowPool pool, Icon icon, String title, String message, INotificationStyle style, GraphicsConfiguration graphicsConfiguration) {
+		super(icon, title, message, style, graphicsConfiguration);
+		fPool = pool;
+		fStyle = style;
+		fGraphicsConfiguration = graphicsConfiguration;
+		fShownBefore = false;
+	}
+
+	@Override
+	public void setVisible(boolean visible) {
+		final boolean wasVisible = isVisible();
+		super.setVisible(visible);
+		if(visible && !wasVisible) {
+			if(fShownBefore) {
+				// the window only sends WINDOW_OPENED the first time it is shown
+				Toolkit.getDefaultToolkit().getSystemEventQueue().postEvent(new WindowEvent(this, WindowEvent.WINDOW_OPENED));
+			}
+			fShownBefore = true;
+		}
+	}
+
+	@Override
+	public void dispose() {
+		if(!isDisplayable() || !fPool.isAccepting(this)) {
+			super.dispose();
+			return;
+		}
+		setVisible(false);
+		// tell the listeners that we are gone, just like a real dispose does
+		processWindowEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSED));
+		for(WindowListener listener : getWindowListeners()) {
+			removeWindowListener(listener);
+		}
+		// the fade out leaves the window transparent
+		final WindowTranslucency api = WindowTranslucency.getDefault();
+		if(api.isTranslucencySupported(Translucency.TRANSLUCENT, getGraphicsConfiguration().getDevice())) {
+			api.setWindowOpacity(this, 1f);
+		}
+		fPool.release(this);
+	}
+
+	/**
+	 * Destroy the window and its native peer. Called by the pool if the window is evicted
+	 */
+	void disposeNow() {
+		super.dispose();
+	}
+
+	INotificationStyle getStyle() {
+		return fStyle;
+	}
+
+	/**
+	 * Get the {@link GraphicsConfiguration} the window was created for
+	 * @return the {@link GraphicsConfiguration} the window was created for
+	 */
+	GraphicsConfiguration getPoolGraphicsConfiguration() {
+		return fGraphicsConfiguration;
+	}
+
+	long getIdleSince() {
+		return fIdleSince;
+	}
+
+	void setIdleSince(long idleSince) {
+		fIdleSince = idleSince;
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Insets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ch.swingfx.text.TextUtil;
+
+/**
+ * Least recently used cache for the preferred heights of wrapped texts.<br />
+ * The height of a text only depends on the font, the width, the insets and the text itself,
+ * so repeated notifications skip the measurement entirely.<br />
+ * This class is thread safe.
+ * @author Heinrich Spreiter
+ *
+ */
+public class TextMeasureCache {
+	/** default number of cached heights */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	private static final TextMeasureCache sSharedCache = new TextMeasureCache(DEFAULT_CAPACITY);
+
+	/** guarded by this */
+	private final Map<Key, Integer> fHeights;
+	/** guarded by this */
+	private long fHitCount;
+	/** guarded by this */
+	private long fMissCount;
+
+	/**
+	 * Create a new cache
+	 * @param capacity maximum number of cached heights. Must be &gt; 0
+	 */
+	public TextMeasureCache(final int capacity) {
+		if(capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be > 0");
+		}
+		fHeights = new LinkedHashMap<Key, Integer>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get the cache used by the notification windows
+	 * @return the shared cache
+	 */
+	public static TextMeasureCache getSharedCache() {
+		return sSharedCache;
+	}
+
+	/**
+	 * Get the preferred height of a text. The text is measured with <code>width - insets.left - insets.right</code>.
+	 * @param fontMetrics metrics of the font we measure with - can not be null
+	 * @param width width of the component that displays the text
+	 * @param insets insets of the component that displays the text - can not be null
+	 * @param text the text - can not be null
+	 * @return the preferred height of the text
+	 */
+	public int getPreferredHeight(FontMetrics fontMetrics, int width, Insets insets, String text) {
+		final Key key = new Key(fontMetrics.getFont(), width, insets, text);
+		synchronized (this) {
+			final Integer height = fHeights.get(key);
+			if(height != null) {
+				fHitCount++;
+				return height.intValue();
+			}
+			fMissCount++;
+		}
+		// measure outside the lock. If two threads measure the same text they get the same result
+		final int height = TextUtil.calculatePreferredHeight(fontMetrics, width - insets.left - insets.right, text);
+		synchronized (this) {
+			fHeights.put(key, Integer.valueOf(height));
+		}
+		return height;
+	}
+
+	/**
+	 * Remove all cached heights
+	 */
+	public synchronized void clear() {
+		fHeights.clear();
+	}
+
+	/**
+	 * Get the number of cached heights
+	 * @return the number of cached heights
+	 */
+	public synchronized int getSize() {
+		return fHeights.size();
+	}
+
+	/**
+	 * Get the number of lookups that found a cached height
+	 * @return the number of hits
+	 */
+	public synchronized long getHitCount() {
+		return fHitCount;
+	}
+
+	/**
+	 * Get the number of lookups that had to measure the text
+	 * @return the number of misses
+	 */
+	public synchronized long getMissCount() {
+		return fMissCount;
+	}
+
+	private static final class Key {
+		private final Font fFont;
+		private final int fWidth;
+		private final int fInsetsLeft;
+		private final int fInsetsRight;
+		private final String fText;
+		private final int fHashCode;
+
+		Key(Font font, int width, Insets insets, String text) {
+			fFont = font;
+			fWidth = width;
+			// only the horizontal insets change the height of the text
+			fInsetsLeft = insets.left;
+			fInsetsRight = insets.right;
+			fText = text;
+			int hashCode = font.hashCode();
+			hashCode = 31 * hashCode + width;
+			hashCode = 31 * hashCode + fInsetsLeft;
+			hashCode = 31 * hashCode + fInsetsRight;
+			hashCode = 31 * hashCode + text.hashCode();
+			fHashCode = hashCode;
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return fWidth == other.fWidth && fInsetsLeft == other.fInsetsLeft && fInsetsRight == other.fInsetsRight
+					&& fHashCode == other.fHashCode && fFont.equals(other.fFont) && fText.equals(other.fText);
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * This library is dual-licensed: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License version 3 as
+ * published by the Free Software Foundation. For the terms of this
+ * license, see licenses/gpl_v3.txt or <http://www.gnu.org/licenses/>.
+ *
+ * You are free to use this library under the terms of the GNU General
+ * Public License, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * Alternatively, you can license this library under a commercial
+ * license, as set out in licenses/commercial.txt.
+ */
+
+package ch.swingfx.twinkle.window;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+
+/**
+ * Display only text that wraps at word boundaries.<br />
+ * A lightweight replacement for a read-only {@link javax.swing.JTextArea}: there is no document, caret or highlighter.
+ * The text is broken into lines with a {@link LineBreakMeasurer}, the lines are kept until the text, the font or the width
+ * changes and they are painted directly with the font and the foreground color of the component.
+ * @author Heinrich Spreiter
+ *
+ */
+public class WrappedTextComponent extends JComponent {
+	private static final long serialVersionUID = 1L;
+
+	private String fText;
+	/** the lines of the text. null if they have to be computed again */
+	private List<TextLayout> fLines;
+	/** width the lines were computed for */
+	private float fLinesWidth;
+	/** font render context the lines were computed with */
+	private FontRenderContext fLinesFontRenderContext;
+
+	/**
+	 * Create a new component without text
+	 */
+	public WrappedTextComponent() {
+		fText = "";
+		setOpaque(false);
+		setFocusable(false);
+	}
+
+	/**
+	 * Set the text
+	 * @param text the text - null is the same as an empty text
+	 */
+	public void setText(String text) {
+		if(text == null) {
+			text = "";
+		}
+		if(text.equals(fText)) {
+			return;
+		}
+		fText = text;
+		fLines = null;
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Get the text
+	 * @return the text. Never null
+	 */
+	public String getText() {
+		return fText;
+	}
+
+	@Override
+	public void setFont(Font font) {
+		super.setFont(font);
+		fLines = null;
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		if(isPreferredSizeSet()) {
+			return super.getPreferredSize();
+		}
+		// without a width we can not wrap. Use the width we have
+		final Insets insets = getInsets();
+		final int width = Math.max(getWidth() - insets.left - insets.right, 1);
+		final FontRenderContext frc = getFontMetrics(getFont()).getFontRenderContext();
+		float height = 0;
+		for(TextLayout line : getLines(width, frc)) {
+			height += line.getAscent() + line.getDescent() + line.getLeading();
+		}
+		return new Dimension(getWidth(), (int) Math.ceil(height) + insets.top + insets.bottom);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		if(fText.length() == 0) {
+			return;
+		}
+		final Graphics2D g2 = (Graphics2D) g.create();
+		try {
+			// render the text like the other components of the desktop
+			final Map<?, ?> desktopHints = (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+			if(desktopHints != null) {
+				g2.addRenderingHints(desktopHints);
+			}
+			g2.setColor(getForeground());
+			final Insets insets = getInsets();
+			final int width = getWidth() - insets.left - insets.right;
+			float y = insets.top;
+			for(TextLayout line : getLines(width, g2.getFontRenderContext())) {
+				y += line.getAscent();
+				line.draw(g2, insets.left, y);
+				y += line.getDescent() + line.getLeading();
+			}
+		} finally {
+			g2.dispose();
+		}
+	}
+
+	/**
+	 * Get the lines of the text. Reuses the lines if nothing changed
+	 * @param width width we wrap at
+	 * @param frc the {@link FontRenderContext} we paint with
+	 * @return the lines
+	 */
+	private List<TextLayout> getLines(float width, FontRenderContext frc) {
+		if(fLines == null || fLinesWidth != width || !frc.equals(fLinesFontRenderContext)) {
+			fLines = breakLines(fText, getFont(), frc, width);
+			fLinesWidth = width;
+			fLinesFontRenderContext = frc;
+		}
+		return fLines;
+	}
+
+	/**
+	 * Break a text into lines. Line breaks in the text start a new line
+	 * @param text the text
+	 * @param font the font
+	 * @param frc the {@link FontRenderContext}
+	 * @param width width we wrap at
+	 * @return the lines
+	 */
+	private static List<TextLayout> breakLines(String text, Font font, FontRenderContext frc, float width) {
+		final List<TextLayout> lines = new ArrayList<TextLayout>();
+		if(text.length() == 0 || font == null) {
+			return lines;
+		}
+		final float wrappingWidth = Math.max(width, 1f);
+		int paragraphStart = 0;
+		while(paragraphStart <= text.length()) {
+			int paragraphEnd = text.indexOf('\n', paragraphStart);
+			if(paragraphEnd < 0) {
+				paragraphEnd = text.length();
+			}
+			if(paragraphEnd == paragraphStart) {
+				// empty line. TextLayout needs at least one character
+				lines.add(new TextLayout(" ", font, frc));
+			} else {
+				final AttributedString paragraph = new AttributedString(text.substring(paragraphStart, paragraphEnd));
+				paragraph.addAttribute(TextAttribute.FONT, font);
+				final LineBreakMeasurer measurer = new LineBreakMeasurer(paragraph.getIterator(), frc);
+				while(measurer.getPosition() < paragraphEnd - paragraphStart) {
+					lines.add(measurer.nextLayout(wrappingWidth));
+				}
+			}
+			paragraphStart = paragraphEnd + 1;
+		}
+		return lines;
+	}
+}